@@ -0,0 +1,93 @@
+package org.acme.service;
+
+import org.acme.dto.ClaudeDTO;
+import org.acme.entity.ConversationTurn;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mensagens e respostas em português no tom real do chat, usadas por todos os benchmarks
+ */
+final class Corpus {
+
+    static final String[] USER_MESSAGES = {
+            "Oi, tudo bem?",
+            "Como descobrir meu dosha? Acho que sou vata mas às vezes me sinto bem pitta",
+            "Acupuntura ajuda com dor nas costas? Tenho medo das agulhas",
+            "Quais óleos essenciais ajudam a dormir melhor? Já tentei lavanda e não funcionou muito",
+            "Estou muito ansiosa com o trabalho e queria começar a meditar, por onde começo?",
+            "O reiki funciona à distância? Minha mãe está internada e eu queria ajudar de alguma forma",
+            "Chá de camomila ou de erva-cidreira para ansiedade? Posso tomar junto com meu remédio?",
+            "Quais posturas de yoga são boas para quem passa o dia inteiro sentado no computador e sente dor no pescoço?",
+            "Eu li que a energia dos chakras fica desequilibrada quando a gente passa por muito estresse, isso tem " +
+                    "alguma base? Ultimamente estou dormindo mal, acordando cansada e sem disposição para nada, " +
+                    "e uma amiga me indicou reiki e aromaterapia ao mesmo tempo.",
+            "Qual a diferença entre mindfulness e meditação transcendental?",
+            "Tenho pressão alta, posso fazer pranayama?",
+            "Quero começar a cuidar da saúde de forma mais natural, mas não sei qual terapia escolher",
+    };
+
+    static final String[] BOT_RESPONSES = {
+            "Que bom ter você aqui! Posso ajudar com dúvidas sobre Ayurveda, acupuntura, aromaterapia, reiki, " +
+                    "meditação, yoga e fitoterapia. Sobre o que você gostaria de conversar hoje?",
+            "No Ayurveda, cada pessoa tem uma combinação única dos três doshas: Vata, Pitta e Kapha. É comum " +
+                    "termos um dosha predominante e outro secundário, então sentir características de Vata e de " +
+                    "Pitta é bastante frequente.\n\nUma forma de começar é observar seu corpo, sua digestão, seu " +
+                    "sono e como você reage ao estresse. Um profissional de Ayurveda pode fazer uma avaliação " +
+                    "completa, incluindo a leitura do pulso.",
+            "Sim, há estudos que indicam benefícios da acupuntura para dor lombar crônica, especialmente quando " +
+                    "combinada com outros cuidados. As agulhas são muito finas e a maioria das pessoas sente apenas " +
+                    "um leve formigamento.\n\nConverse com o acupunturista sobre seu receio: ele pode começar com " +
+                    "poucos pontos e explicar cada etapa. Procure sempre um profissional habilitado.",
+            "Além da lavanda, óleos como camomila-romana, bergamota e cedro são usados para favorecer o " +
+                    "relaxamento. Você pode usar 2 a 3 gotas no difusor cerca de 30 minutos antes de deitar.\n\n" +
+                    "Vale lembrar que a aromaterapia funciona melhor junto com uma boa higiene do sono: horários " +
+                    "regulares, pouca tela à noite e ambiente escuro. Se a insônia persistir, procure um médico.",
+            "Sinto muito que você esteja passando por isso. Para começar a meditar, experimente sessões curtas " +
+                    "de 5 minutos, sentada confortavelmente, prestando atenção na respiração. Quando a mente " +
+                    "divagar, apenas traga a atenção de volta, sem julgamento.\n\nAplicativos guiados podem " +
+                    "ajudar no início. Se a ansiedade estiver atrapalhando sua rotina, busque também apoio de um " +
+                    "psicólogo.",
+    };
+
+    static final String[] SUGGESTION_COMPLETIONS = {
+            "Como equilibrar Vata no inverno?\nQuais alimentos reduzem Pitta?\nRotina matinal ayurvédica para iniciantes",
+            "1. Quantas sessões de acupuntura são necessárias?\n2. Acupuntura dói?\n3. Existe contraindicação?",
+            "- Quais óleos evitar na gravidez?\n- Como diluir óleo essencial?\n- Difusor ou inalação direta?",
+            "• Quanto tempo meditar por dia?\n• Meditação guiada funciona?\n• Melhor horário para meditar?\n",
+    };
+
+    private Corpus() {
+    }
+
+    /**
+     * Histórico com o número pedido de turnos, do mais antigo para o mais recente
+     */
+    static List<ConversationTurn> history(int turns) {
+        List<ConversationTurn> history = new ArrayList<>(turns);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < turns; i++) {
+            history.add(new ConversationTurn(
+                    USER_MESSAGES[i % USER_MESSAGES.length],
+                    BOT_RESPONSES[i % BOT_RESPONSES.length],
+                    start.plusMinutes(i)));
+        }
+        return history;
+    }
+
+    /**
+     * Resposta da API com o texto dividido em blocos, como chega do Claude
+     */
+    static ClaudeDTO.MessageResponse response(String text, int blocks) {
+        ClaudeDTO.MessageResponse response = new ClaudeDTO.MessageResponse();
+        response.content = new ArrayList<>(blocks);
+        int step = Math.max(1, text.length() / blocks);
+        for (int start = 0; start < text.length(); start += step) {
+            ClaudeDTO.ContentBlock block = new ClaudeDTO.ContentBlock(text.substring(start, Math.min(text.length(), start + step)));
+            response.content.add(block);
+        }
+        return response;
+    }
+}
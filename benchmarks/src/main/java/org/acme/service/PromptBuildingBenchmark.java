@@ -0,0 +1,63 @@
+package org.acme.service;
+
+import org.acme.dto.ClaudeDTO;
+import org.acme.entity.ConversationTurn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Montagem do prompt: system prompt por terapia e empacotamento do histórico no orçamento
+ * de tokens, com históricos de tamanhos diferentes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.jboss.logging.provider=jdk")
+@State(Scope.Benchmark)
+public class PromptBuildingBenchmark {
+
+    // Turnos de histórico da sessão; o padrão de produção carrega até claude.history.turns
+    @Param({"0", "5", "20"})
+    int historyTurns;
+
+    // Orçamento de tokens do histórico (claude.history.token-budget.response)
+    @Param({"2000"})
+    int tokenBudget;
+
+    private ClaudeService claudeService;
+    private List<ConversationTurn> history;
+    private String userMessage;
+
+    @Setup
+    public void setup() {
+        // O log de INFO do buildMessages iria para o console a cada chamada
+        java.util.logging.Logger.getLogger("org.acme").setLevel(Level.WARNING);
+        claudeService = new ClaudeService();
+        history = Corpus.history(historyTurns);
+        userMessage = Corpus.USER_MESSAGES[8];
+    }
+
+    @Benchmark
+    public String buildSystemPrompt() {
+        return SystemPrompts.buildSystemPrompt("ayurveda");
+    }
+
+    @Benchmark
+    public List<ClaudeDTO.Message> buildMessages() {
+        return claudeService.buildMessages(userMessage, history, tokenBudget);
+    }
+}
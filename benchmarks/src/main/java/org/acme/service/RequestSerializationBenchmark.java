@@ -0,0 +1,58 @@
+package org.acme.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.config.ObjectMapperConfig;
+import org.acme.dto.ClaudeDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Serialização Jackson da requisição ao Claude, com o ObjectMapper configurado pela aplicação
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.jboss.logging.provider=jdk")
+@State(Scope.Benchmark)
+public class RequestSerializationBenchmark {
+
+    @Param({"0", "5", "20"})
+    int historyTurns;
+
+    private ObjectMapper mapper;
+    private ClaudeDTO.MessageRequest request;
+
+    @Setup
+    public void setup() {
+        java.util.logging.Logger.getLogger("org.acme").setLevel(Level.WARNING);
+        mapper = new ObjectMapperConfig().objectMapper();
+
+        request = new ClaudeDTO.MessageRequest();
+        request.model = "claude-sonnet-4-20250514";
+        request.maxTokens = 1024;
+        request.temperature = 0.7;
+        request.system = SystemPrompts.buildSystemPrompt("ayurveda");
+        // Orçamento alto para que todo o histórico entre na requisição
+        request.messages = new ClaudeService().buildMessages(
+                Corpus.USER_MESSAGES[1], Corpus.history(historyTurns), Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public byte[] serializeMessageRequest() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(request);
+    }
+}
@@ -0,0 +1,60 @@
+package org.acme.service;
+
+import org.acme.dto.ClaudeDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura das respostas do Claude: concatenação dos blocos de texto e limpeza das linhas
+ * de sugestão (regexes de numeração e marcadores)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.jboss.logging.provider=jdk")
+@State(Scope.Benchmark)
+public class ResponseParsingBenchmark {
+
+    // Blocos de texto na resposta (1 = resposta comum)
+    @Param({"1", "8"})
+    int blocks;
+
+    private ClaudeService claudeService;
+    private ClaudeDTO.MessageResponse reply;
+    private ClaudeDTO.MessageResponse[] suggestions;
+
+    @Setup
+    public void setup() {
+        claudeService = new ClaudeService();
+        reply = Corpus.response(Corpus.BOT_RESPONSES[4], blocks);
+        suggestions = new ClaudeDTO.MessageResponse[Corpus.SUGGESTION_COMPLETIONS.length];
+        for (int i = 0; i < suggestions.length; i++) {
+            suggestions[i] = Corpus.response(Corpus.SUGGESTION_COMPLETIONS[i], 1);
+        }
+    }
+
+    @Benchmark
+    public String extractTextFromContent() {
+        return claudeService.extractTextFromContent(reply.content);
+    }
+
+    @Benchmark
+    public void parseSuggestions(Blackhole blackhole) {
+        for (ClaudeDTO.MessageResponse response : suggestions) {
+            blackhole.consume(claudeService.parseSuggestions(response));
+        }
+    }
+}
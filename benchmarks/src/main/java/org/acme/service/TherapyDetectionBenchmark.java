@@ -0,0 +1,41 @@
+package org.acme.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TherapyService.detectTherapyType sobre todo o corpus de mensagens (uma operação = corpus inteiro)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.jboss.logging.provider=jdk")
+@State(Scope.Benchmark)
+public class TherapyDetectionBenchmark {
+
+    private TherapyService therapyService;
+
+    @Setup
+    public void setup() {
+        therapyService = new TherapyService();
+    }
+
+    @Benchmark
+    public void detectTherapyType(Blackhole blackhole) {
+        for (String message : Corpus.USER_MESSAGES) {
+            blackhole.consume(therapyService.detectTherapyType(message));
+        }
+    }
+}
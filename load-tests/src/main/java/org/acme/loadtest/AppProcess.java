@@ -0,0 +1,91 @@
+package org.acme.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplicação sob teste iniciada como processo filho, apontada para o stub do Claude e para
+ * o PostgreSQL local. A saída vai para load-tests/target/app.log.
+ */
+final class AppProcess {
+
+    private final LoadTestOptions options;
+    private Process process;
+
+    AppProcess(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    void start(String claudeBaseUrl) throws IOException {
+        File jar = new File(options.appJar);
+        if (!jar.isFile()) {
+            throw new IllegalStateException("Jar da aplicação não encontrado em " + jar.getAbsolutePath()
+                    + "; rode ./mvnw package -DskipTests ou informe --app-jar / --app-url");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (String opt : options.appJavaOpts.trim().split("\\s+")) {
+            if (!opt.isEmpty()) {
+                command.add(opt);
+            }
+        }
+        command.add("-jar");
+        command.add(jar.getAbsolutePath());
+
+        File log = new File("load-tests/target/app.log");
+        log.getParentFile().mkdirs();
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log);
+        Map<String, String> env = builder.environment();
+        env.put("PORT", String.valueOf(options.appPort));
+        env.put("CLAUDE_BASE_URL", claudeBaseUrl);
+        env.put("ANTHROPIC_API_KEY", "load-test");
+        env.put("DB_HOST", options.dbHost);
+        env.put("DB_PORT", String.valueOf(options.dbPort));
+        env.put("DB_NAME", options.dbName);
+        env.put("DB_USER", options.dbUser);
+        env.put("DB_PASSWORD", options.dbPassword);
+        process = builder.start();
+        System.out.printf("Aplicação iniciada (pid %d), log em %s%n", process.pid(), log.getPath());
+    }
+
+    /**
+     * Espera o health check de prontidão responder 200
+     */
+    static void awaitReady(String baseUrl, int timeoutSeconds) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest ready = HttpRequest.newBuilder(URI.create(baseUrl + "/q/health/ready"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(timeoutSeconds).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ignored) {
+                // ainda subindo
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Aplicação não ficou pronta em " + timeoutSeconds + " s: " + baseUrl);
+    }
+
+    void stop() {
+        if (process != null) {
+            process.destroy();
+        }
+    }
+}
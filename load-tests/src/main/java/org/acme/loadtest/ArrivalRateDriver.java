@@ -0,0 +1,115 @@
+package org.acme.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Dispara requisições a uma taxa de chegada fixa (modelo aberto): a próxima sai no horário
+ * previsto mesmo que as anteriores ainda não tenham respondido, como tráfego real de usuários.
+ * Acima de max-in-flight requisições pendentes a chegada é descartada e contada como erro.
+ */
+final class ArrivalRateDriver implements Runnable {
+
+    /**
+     * Requisição rotulada pelo endpoint, para relatar cada um separadamente
+     */
+    record LoadRequest(String label, HttpRequest request) {
+    }
+
+    private final String name;
+    private final double ratePerSecond;
+    private final Supplier<LoadRequest> requests;
+    private final HttpClient client;
+    private final LoadTestOptions options;
+
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ArrivalRateDriver(String name, double ratePerSecond, Supplier<LoadRequest> requests, HttpClient client,
+                      LoadTestOptions options) {
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+        this.requests = requests;
+        this.client = client;
+        this.options = options;
+    }
+
+    @Override
+    public void run() {
+        if (ratePerSecond <= 0) {
+            return;
+        }
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupS);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationS);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(intended, intended >= measureFrom);
+        }
+
+        // Espera as pendentes para que as mais lentas também entrem no relatório
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.requestTimeoutS);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+
+    private void fire(long intended, boolean record) {
+        LoadRequest load = requests.get();
+        LatencyRecorder recorder = record ? recorder(load.label()) : null;
+        if (inFlight.get() >= options.maxInFlight) {
+            if (recorder != null) {
+                recorder.record(System.nanoTime() - intended, "dropped", true);
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(load.request(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    inFlight.decrementAndGet();
+                    if (recorder == null) {
+                        return;
+                    }
+                    long latency = System.nanoTime() - intended;
+                    if (failure != null) {
+                        recorder.record(latency, failure.getClass().getSimpleName(), true);
+                    } else {
+                        int status = response.statusCode();
+                        recorder.record(latency, String.valueOf(status), status >= 400);
+                    }
+                });
+    }
+
+    private LatencyRecorder recorder(String label) {
+        synchronized (recorders) {
+            return recorders.computeIfAbsent(label, LatencyRecorder::new);
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    Collection<LatencyRecorder> recorders() {
+        synchronized (recorders) {
+            return recorders.values();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.acme.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Stub WireMock de POST /v1/messages da API do Claude. Responde no formato da API, com o
+ * texto adequado a cada tipo de chamada (resposta, combinada, sentimento, sugestões, resumo),
+ * latência sorteada da distribuição configurada, rajadas periódicas de 429 com retry-after
+ * e uma fração de 500/529.
+ */
+final class ClaudeStub {
+
+    private static final String REPLY = "Que bom que você quer cuidar da sua saúde de forma integrativa! " +
+            "Práticas como meditação, yoga e aromaterapia podem ajudar a reduzir o estresse e melhorar o sono, " +
+            "principalmente quando feitas com regularidade.\\n\\nComece com pequenas mudanças na rotina e observe " +
+            "como seu corpo responde. Lembre-se de que essas práticas complementam, mas não substituem, o " +
+            "acompanhamento com profissionais de saúde qualificados.";
+
+    private static final String SUGGESTIONS = "Como começar a meditar em casa?\\n" +
+            "Quais óleos ajudam a dormir?\\nYoga ajuda com ansiedade?";
+
+    private final LoadTestOptions options;
+    private final WireMockServer server;
+    private final long startNanos = System.nanoTime();
+
+    final LongAdder served = new LongAdder();
+    final LongAdder rateLimited = new LongAdder();
+    final LongAdder serverErrors = new LongAdder();
+
+    ClaudeStub(LoadTestOptions options) {
+        this.options = options;
+        this.server = new WireMockServer(options()
+                .port(options.stubPort)
+                .containerThreads(200)
+                .jettyAcceptors(4)
+                .disableRequestJournal()
+                .extensions(new Chaos()));
+    }
+
+    void start() {
+        server.start();
+        server.stubFor(post(urlEqualTo("/v1/messages"))
+                .willReturn(withLatency(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json"))));
+    }
+
+    void stop() {
+        server.stop();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + options.stubPort + "/v1";
+    }
+
+    private ResponseDefinitionBuilder withLatency(ResponseDefinitionBuilder builder) {
+        String[] parts = options.latency.split("[:,]");
+        return switch (parts[0]) {
+            case "lognormal" -> builder.withLogNormalRandomDelay(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+            case "uniform" -> builder.withUniformRandomDelay(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            case "fixed" -> builder.withFixedDelay(Integer.parseInt(parts[1]));
+            default -> throw new IllegalArgumentException("Distribuição de latência desconhecida: " + options.latency);
+        };
+    }
+
+    private boolean inBurst() {
+        if (options.burstEveryS <= 0 || options.burstDurationS <= 0) {
+            return false;
+        }
+        long elapsedS = (System.nanoTime() - startNanos) / 1_000_000_000L;
+        // A primeira rajada vem depois de um período inteiro, fora do aquecimento
+        return elapsedS >= options.burstEveryS && elapsedS % options.burstEveryS < options.burstDurationS;
+    }
+
+    /**
+     * Texto da resposta conforme o prompt recebido
+     */
+    private static String text(String body) {
+        if (body.contains("FORMATO DE SA")) {
+            // O ClaudeService faz prefill com "{": a resposta continua o objeto JSON
+            // Quebras de linha escapadas mais uma vez: o texto é JSON dentro de uma string JSON
+            return "\\\"reply\\\": \\\"" + REPLY.replace("\\n", "\\\\n") + "\\\", \\\"sentiment\\\": \\\"neutro\\\", \\\"suggestions\\\": " +
+                    "[\\\"Como começar a meditar em casa?\\\", \\\"Quais óleos ajudam a dormir?\\\", " +
+                    "\\\"Yoga ajuda com ansiedade?\\\"]}";
+        }
+        if (body.contains("Analise o sentimento")) {
+            return "neutro";
+        }
+        if (body.contains("sugira exatamente 3 perguntas")) {
+            return SUGGESTIONS;
+        }
+        if (body.contains("Atualize o resumo")) {
+            return "Usuário interessado em meditação e aromaterapia para ansiedade e sono.";
+        }
+        return REPLY;
+    }
+
+    private static String message(String text) {
+        return "{\"id\":\"msg_loadtest\",\"type\":\"message\",\"role\":\"assistant\"," +
+                "\"model\":\"claude-stub\",\"content\":[{\"type\":\"text\",\"text\":\"" + text + "\"}]," +
+                "\"stop_reason\":\"end_turn\",\"usage\":{\"input_tokens\":850,\"output_tokens\":160}}";
+    }
+
+    /**
+     * Decide, por requisição, entre resposta normal, 429 (durante a rajada) e 500/529
+     */
+    private final class Chaos implements ResponseDefinitionTransformerV2 {
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            served.increment();
+            ResponseDefinition stubbed = serveEvent.getResponseDefinition();
+
+            if (inBurst()) {
+                rateLimited.increment();
+                String reset = DateTimeFormatter.ISO_INSTANT.format(Instant.now().plusSeconds(options.retryAfterS));
+                return ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(429)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("retry-after", String.valueOf(options.retryAfterS))
+                        .withHeader("anthropic-ratelimit-requests-limit", "1000")
+                        .withHeader("anthropic-ratelimit-requests-remaining", "0")
+                        .withHeader("anthropic-ratelimit-requests-reset", reset)
+                        .withBody("{\"type\":\"error\",\"error\":{\"type\":\"rate_limit_error\",\"message\":\"stub\"}}")
+                        .build();
+            }
+
+            if (ThreadLocalRandom.current().nextDouble() < options.errorRate) {
+                serverErrors.increment();
+                boolean overloaded = ThreadLocalRandom.current().nextBoolean();
+                return ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(overloaded ? 529 : 500)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(50)
+                        .withBody(overloaded
+                                ? "{\"type\":\"error\",\"error\":{\"type\":\"overloaded_error\",\"message\":\"stub\"}}"
+                                : "{\"type\":\"error\",\"error\":{\"type\":\"api_error\",\"message\":\"stub\"}}")
+                        .build();
+            }
+
+            return ResponseDefinitionBuilder.like(stubbed)
+                    .withBody(message(text(serveEvent.getRequest().getBodyAsString())))
+                    .build();
+        }
+
+        @Override
+        public String getName() {
+            return "claude-chaos";
+        }
+    }
+}
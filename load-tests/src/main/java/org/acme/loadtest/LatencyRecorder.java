@@ -0,0 +1,102 @@
+package org.acme.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latências e status de um endpoint. A latência conta a partir do instante em que a
+ * requisição deveria ter saído, para não esconder filas (coordinated omission).
+ */
+final class LatencyRecorder {
+
+    private final String label;
+    private long[] latenciesMicros = new long[1024];
+    private int count;
+    private int errors;
+    private final Map<String, Integer> statuses = new TreeMap<>();
+
+    LatencyRecorder(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    synchronized void record(long latencyNanos, String status, boolean error) {
+        if (count == latenciesMicros.length) {
+            latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+        }
+        latenciesMicros[count++] = latencyNanos / 1000;
+        if (error) {
+            errors++;
+        }
+        statuses.merge(status, 1, Integer::sum);
+    }
+
+    synchronized Summary summarize(double durationSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        Summary summary = new Summary();
+        summary.label = label;
+        summary.requests = count;
+        summary.errors = errors;
+        summary.errorRate = count == 0 ? 0.0 : (double) errors / count;
+        summary.throughput = count / durationSeconds;
+        summary.p50Ms = percentileMs(sorted, 0.50);
+        summary.p95Ms = percentileMs(sorted, 0.95);
+        summary.p99Ms = percentileMs(sorted, 0.99);
+        summary.maxMs = count == 0 ? 0.0 : sorted[count - 1] / 1000.0;
+        summary.statuses = new TreeMap<>(statuses);
+        return summary;
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+
+    /**
+     * Resultado consolidado de um endpoint
+     */
+    static final class Summary {
+        String label;
+        int requests;
+        int errors;
+        double errorRate;
+        double throughput;
+        double p50Ms;
+        double p95Ms;
+        double p99Ms;
+        double maxMs;
+        Map<String, Integer> statuses;
+
+        String toJson() {
+            StringBuilder json = new StringBuilder();
+            json.append("{\"label\":\"").append(label).append('"')
+                    .append(",\"requests\":").append(requests)
+                    .append(",\"errors\":").append(errors)
+                    .append(",\"error_rate\":").append(String.format(Locale.ROOT, "%.4f", errorRate))
+                    .append(",\"throughput_rps\":").append(String.format(Locale.ROOT, "%.2f", throughput))
+                    .append(",\"p50_ms\":").append(String.format(Locale.ROOT, "%.1f", p50Ms))
+                    .append(",\"p95_ms\":").append(String.format(Locale.ROOT, "%.1f", p95Ms))
+                    .append(",\"p99_ms\":").append(String.format(Locale.ROOT, "%.1f", p99Ms))
+                    .append(",\"max_ms\":").append(String.format(Locale.ROOT, "%.1f", maxMs))
+                    .append(",\"statuses\":{");
+            boolean first = true;
+            for (Map.Entry<String, Integer> entry : statuses.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                json.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+                first = false;
+            }
+            return json.append("}}").toString();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.acme.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Teste de carga ponta a ponta do chatbot. Sobe o stub do Claude, inicia a aplicação contra
+ * ele (ou usa --app-url) e dispara, em paralelo e a taxas fixas, POST /api/chat/message e os
+ * endpoints de check-in. Ao final imprime vazão, p50/p95/p99 e taxa de erro por endpoint e
+ * grava o mesmo resultado em JSON (--report).
+ */
+public final class LoadTest {
+
+    private static final String[] MESSAGES = {
+            "Como descobrir meu dosha?",
+            "Acupuntura ajuda com dor nas costas?",
+            "Quais óleos essenciais ajudam a dormir melhor?",
+            "Estou muito ansiosa com o trabalho, como começar a meditar?",
+            "O reiki funciona à distância?",
+            "Chá de camomila ajuda na ansiedade?",
+            "Quais posturas de yoga são boas para quem passa o dia sentado?",
+            "Quero começar a cuidar da saúde de forma mais natural, por onde começo?",
+    };
+
+    private static final String[] EMOTIONS = {"feliz", "calmo", "ansioso", "triste", "cansado", "motivado"};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ClaudeStub stub = new ClaudeStub(options);
+        stub.start();
+        System.out.printf("Stub do Claude em %s (latência %s, erros %.1f%%, 429 por %d s a cada %d s)%n",
+                stub.baseUrl(), options.latency, options.errorRate * 100, options.burstDurationS, options.burstEveryS);
+
+        AppProcess app = null;
+        try {
+            if (options.appUrl == null) {
+                app = new AppProcess(options);
+                app.start(stub.baseUrl());
+            }
+            AppProcess.awaitReady(options.baseUrl(), options.startupTimeoutS);
+            System.out.printf("Aplicação pronta em %s; aquecimento de %d s, medição de %d s%n",
+                    options.baseUrl(), options.warmupS, options.durationS);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            List<ArrivalRateDriver> drivers = List.of(
+                    new ArrivalRateDriver("chat", options.chatRate, chatRequests(options), client, options),
+                    new ArrivalRateDriver("checkin", options.checkinRate, checkInRequests(options), client, options));
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(drivers.size())) {
+                drivers.forEach(executor::submit);
+            }
+
+            report(options, drivers, stub);
+        } finally {
+            if (app != null) {
+                app.stop();
+            }
+            stub.stop();
+        }
+    }
+
+    private static Supplier<ArrivalRateDriver.LoadRequest> chatRequests(LoadTestOptions options) {
+        String url = options.baseUrl() + "/api/chat/message";
+        return () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String body = String.format("{\"session_id\":\"load-%d\",\"message\":\"%s\"}",
+                    random.nextInt(options.sessions), MESSAGES[random.nextInt(MESSAGES.length)]);
+            return new ArrivalRateDriver.LoadRequest("POST /api/chat/message", post(url, body, options));
+        };
+    }
+
+    /**
+     * Mistura de check-ins: metade grava, metade consulta histórico e estatísticas
+     */
+    private static Supplier<ArrivalRateDriver.LoadRequest> checkInRequests(LoadTestOptions options) {
+        String base = options.baseUrl() + "/api/checkin";
+        return () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String user = "load-user-" + random.nextInt(options.users);
+            int pick = random.nextInt(4);
+            if (pick < 2) {
+                String body = String.format(
+                        "{\"userId\":\"%s\",\"checkinDate\":\"%s\",\"emotion\":\"%s\",\"energyLevel\":%d,\"sleepQuality\":%d,\"notes\":\"teste de carga\"}",
+                        user, LocalDate.now().minusDays(random.nextInt(30)), EMOTIONS[random.nextInt(EMOTIONS.length)],
+                        1 + random.nextInt(5), 1 + random.nextInt(5));
+                return new ArrivalRateDriver.LoadRequest("POST /api/checkin", post(base, body, options));
+            }
+            if (pick == 2) {
+                return new ArrivalRateDriver.LoadRequest("GET /api/checkin/history",
+                        get(base + "/history/" + user + "?days=30", options));
+            }
+            return new ArrivalRateDriver.LoadRequest("GET /api/checkin/stats",
+                    get(base + "/stats/" + user + "?days=30", options));
+        };
+    }
+
+    private static HttpRequest post(String url, String body, LoadTestOptions options) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(options.requestTimeoutS))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static HttpRequest get(String url, LoadTestOptions options) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(options.requestTimeoutS))
+                .GET()
+                .build();
+    }
+
+    private static void report(LoadTestOptions options, List<ArrivalRateDriver> drivers, ClaudeStub stub)
+            throws IOException {
+        List<LatencyRecorder.Summary> summaries = new ArrayList<>();
+        for (ArrivalRateDriver driver : drivers) {
+            for (LatencyRecorder recorder : driver.recorders()) {
+                summaries.add(recorder.summarize(options.durationS));
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-28s %9s %9s %8s %9s %9s %9s %9s%n",
+                "endpoint", "reqs", "req/s", "erros", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.Summary s : summaries) {
+            System.out.printf("%-28s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    s.label, s.requests, s.throughput, s.errorRate * 100, s.p50Ms, s.p95Ms, s.p99Ms, s.maxMs,
+                    s.statuses);
+        }
+        System.out.printf("%nStub do Claude: %d chamadas, %d com 429, %d com 5xx%n",
+                stub.served.sum(), stub.rateLimited.sum(), stub.serverErrors.sum());
+
+        StringBuilder json = new StringBuilder("{\"chat_rate\":").append(options.chatRate)
+                .append(",\"checkin_rate\":").append(options.checkinRate)
+                .append(",\"duration_s\":").append(options.durationS)
+                .append(",\"stub\":{\"latency\":\"").append(options.latency)
+                .append("\",\"error_rate\":").append(options.errorRate)
+                .append(",\"calls\":").append(stub.served.sum())
+                .append(",\"rate_limited\":").append(stub.rateLimited.sum())
+                .append(",\"server_errors\":").append(stub.serverErrors.sum())
+                .append("},\"endpoints\":[");
+        for (int i = 0; i < summaries.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(summaries.get(i).toJson());
+        }
+        json.append("]}");
+
+        Path path = Path.of(options.report);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.writeString(path, json);
+        System.out.println("Relatório em " + path);
+    }
+}
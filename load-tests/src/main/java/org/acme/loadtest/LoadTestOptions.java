@@ -0,0 +1,97 @@
+package org.acme.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opções do teste de carga, no formato --chave=valor
+ */
+final class LoadTestOptions {
+
+    // Aplicação: jar a iniciar, ou URL de uma instância já rodando apontada para o stub
+    String appJar = "target/quarkus-camel-openai-chat-1.0-SNAPSHOT-runner.jar";
+    String appUrl;
+    int appPort = 8081;
+    String appJavaOpts = "";
+    int startupTimeoutS = 120;
+
+    // PostgreSQL local (docker-compose.yml)
+    String dbHost = "localhost";
+    int dbPort = 5432;
+    String dbName = "chatbot_load";
+    String dbUser = "postgres";
+    String dbPassword = "postgres";
+
+    // Stub do Claude: latência (lognormal:mediana,sigma | uniform:min,max | fixed:ms)
+    int stubPort = 8089;
+    String latency = "lognormal:1200,0.4";
+    double errorRate = 0.01;
+    int burstEveryS = 60;
+    int burstDurationS = 5;
+    int retryAfterS = 1;
+
+    // Carga: requisições por segundo (taxa de chegada fixa, modelo aberto)
+    double chatRate = 10;
+    double checkinRate = 20;
+    int sessions = 200;
+    int users = 500;
+    int warmupS = 15;
+    int durationS = 60;
+    int maxInFlight = 2000;
+    int requestTimeoutS = 60;
+
+    String report = "load-tests/target/load-report.json";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (use --chave=valor): " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.appJar = values.getOrDefault("app-jar", options.appJar);
+        options.appUrl = values.getOrDefault("app-url", options.appUrl);
+        options.appPort = intValue(values, "app-port", options.appPort);
+        options.appJavaOpts = values.getOrDefault("app-java-opts", options.appJavaOpts);
+        options.startupTimeoutS = intValue(values, "startup-timeout-s", options.startupTimeoutS);
+        options.dbHost = values.getOrDefault("db-host", options.dbHost);
+        options.dbPort = intValue(values, "db-port", options.dbPort);
+        options.dbName = values.getOrDefault("db-name", options.dbName);
+        options.dbUser = values.getOrDefault("db-user", options.dbUser);
+        options.dbPassword = values.getOrDefault("db-password", options.dbPassword);
+        options.stubPort = intValue(values, "stub-port", options.stubPort);
+        options.latency = values.getOrDefault("latency", options.latency);
+        options.errorRate = doubleValue(values, "error-rate", options.errorRate);
+        options.burstEveryS = intValue(values, "burst-every-s", options.burstEveryS);
+        options.burstDurationS = intValue(values, "burst-duration-s", options.burstDurationS);
+        options.retryAfterS = intValue(values, "retry-after-s", options.retryAfterS);
+        options.chatRate = doubleValue(values, "chat-rate", options.chatRate);
+        options.checkinRate = doubleValue(values, "checkin-rate", options.checkinRate);
+        options.sessions = intValue(values, "sessions", options.sessions);
+        options.users = intValue(values, "users", options.users);
+        options.warmupS = intValue(values, "warmup-s", options.warmupS);
+        options.durationS = intValue(values, "duration-s", options.durationS);
+        options.maxInFlight = intValue(values, "max-in-flight", options.maxInFlight);
+        options.requestTimeoutS = intValue(values, "request-timeout-s", options.requestTimeoutS);
+        options.report = values.getOrDefault("report", options.report);
+        return options;
+    }
+
+    String baseUrl() {
+        return appUrl != null ? appUrl : "http://localhost:" + appPort;
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static double doubleValue(Map<String, String> values, String key, double defaultValue) {
+        String value = values.get(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
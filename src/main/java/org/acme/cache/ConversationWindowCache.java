@@ -0,0 +1,140 @@
+package org.acme.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.entity.ConversationTurn;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Janela das últimas interações por sessão, mantida em memória para que sessões ativas
+ * não releiam o histórico do PostgreSQL a cada mensagem. Sessões frias caem na consulta.
+ */
+@ApplicationScoped
+public class ConversationWindowCache {
+
+    // Overhead aproximado por turno (objeto, referências, LocalDateTime)
+    private static final long TURN_OVERHEAD_BYTES = 96;
+
+    // Faixas de contadores de append; sessões na mesma faixa só perdem uma carga no cache
+    private static final int STAMP_STRIPES = 1024;
+
+    @ConfigProperty(name = "chat.history-cache.enabled", defaultValue = "true")
+    Boolean enabled;
+
+    @ConfigProperty(name = "chat.history-cache.max-sessions", defaultValue = "10000")
+    Integer maxSessions;
+
+    @ConfigProperty(name = "chat.history-cache.max-memory-mb", defaultValue = "64")
+    Integer maxMemoryMb;
+
+    @ConfigProperty(name = "chat.history-cache.ttl-minutes", defaultValue = "30")
+    Integer ttlMinutes;
+
+    @ConfigProperty(name = "claude.history.turns", defaultValue = "5")
+    Integer historyTurns;
+
+    @ConfigProperty(name = "chat.summary.enabled", defaultValue = "false")
+    Boolean summaryEnabled;
+
+    @ConfigProperty(name = "chat.summary.every-turns", defaultValue = "5")
+    Integer summaryEveryTurns;
+
+    // Com resumo, guarda também os turnos que saíram da janela e ainda esperam o próximo resumo
+    private int windowSize;
+
+    private TtlLruCache<String, List<ConversationTurn>> cache;
+
+    // Incrementado a cada append: uma janela lida do banco só entra no cache se nenhum
+    // turno da sessão foi persistido durante a leitura
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    @PostConstruct
+    void init() {
+        windowSize = historyTurns + (summaryEnabled ? summaryEveryTurns : 0);
+        cache = new TtlLruCache<>("conversation-window", maxSessions, maxMemoryMb * 1024L * 1024L,
+                Duration.ofMinutes(ttlMinutes), ConversationWindowCache::estimateBytes);
+    }
+
+    /**
+     * Janela em cache ou null quando a sessão precisa ser lida do banco
+     */
+    public List<ConversationTurn> get(String sessionId) {
+        return enabled ? cache.get(sessionId) : null;
+    }
+
+    /**
+     * Marca a ser lida antes de consultar o banco e repassada ao {@link #put}
+     */
+    public long stamp(String sessionId) {
+        return stamps.get(stripe(sessionId));
+    }
+
+    /**
+     * Guarda a janela lida do banco (já limitada aos últimos turnos). É descartada se
+     * algum turno da sessão foi acrescentado depois da marca, pois a leitura pode não
+     * tê-lo visto, e não substitui uma janela que outra leitura já guardou.
+     */
+    public void put(String sessionId, long stamp, List<ConversationTurn> window) {
+        if (!enabled) {
+            return;
+        }
+        List<ConversationTurn> copy = List.copyOf(window);
+        synchronized (this) {
+            if (stamps.get(stripe(sessionId)) == stamp) {
+                cache.putIfAbsent(sessionId, copy);
+            }
+        }
+    }
+
+    /**
+     * Acrescenta o turno recém-persistido. Só atualiza sessões já em cache: sem a janela
+     * completa não dá para saber quais turnos anteriores faltam. A janela atualizada
+     * continua igual ao banco, então o prazo recomeça.
+     */
+    public void append(String sessionId, ConversationTurn turn) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            stamps.incrementAndGet(stripe(sessionId));
+            cache.computeIfPresent(sessionId, window -> {
+                List<ConversationTurn> updated = new ArrayList<>(window.size() + 1);
+                updated.addAll(window);
+                updated.add(turn);
+                int overflow = updated.size() - windowSize;
+                return List.copyOf(overflow > 0 ? updated.subList(overflow, updated.size()) : updated);
+            }, true);
+        }
+    }
+
+    /**
+     * Turnos mantidos por sessão e lidos do banco quando a sessão não está em cache
+     */
+    public int windowSize() {
+        return windowSize;
+    }
+
+    public TtlLruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private static int stripe(String sessionId) {
+        return Math.floorMod(Objects.hashCode(sessionId), STAMP_STRIPES);
+    }
+
+    private static long estimateBytes(List<ConversationTurn> window) {
+        long bytes = 0;
+        for (ConversationTurn turn : window) {
+            bytes += TURN_OVERHEAD_BYTES;
+            bytes += turn.userMessage != null ? 2L * turn.userMessage.length() : 0;
+            bytes += turn.botResponse != null ? 2L * turn.botResponse.length() : 0;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,100 @@
+package org.acme.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.util.TextNormalizer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache de respostas para a primeira mensagem de uma sessão. Sem histórico, a resposta
+ * depende só de (modelo, terapia, mensagem). Com temperatura diferente de zero, guarda
+ * algumas variantes por chave e alterna entre elas para não repetir sempre o mesmo texto.
+ */
+@ApplicationScoped
+public class FirstTurnResponseCache {
+
+    @ConfigProperty(name = "chat.first-turn-cache.enabled", defaultValue = "false")
+    Boolean enabled;
+
+    // Lista de terapias habilitadas ou "*" para todas
+    @ConfigProperty(name = "chat.first-turn-cache.therapies", defaultValue = "*")
+    Set<String> therapies;
+
+    @ConfigProperty(name = "chat.first-turn-cache.max-size", defaultValue = "2000")
+    Integer maxSize;
+
+    @ConfigProperty(name = "chat.first-turn-cache.ttl-minutes", defaultValue = "720")
+    Integer ttlMinutes;
+
+    @ConfigProperty(name = "chat.first-turn-cache.variants", defaultValue = "3")
+    Integer variants;
+
+    private TtlLruCache<String, Variants> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new TtlLruCache<>("first-turn-response", maxSize, Duration.ofMinutes(ttlMinutes));
+    }
+
+    public boolean isEnabledFor(String therapyType) {
+        return enabled && (therapies.contains("*") || therapies.contains(therapyType));
+    }
+
+    /**
+     * Resposta em cache, ou null enquanto a chave ainda não tiver todas as variantes desejadas
+     */
+    public String get(String model, String therapyType, String message, double temperature) {
+        int wanted = wantedVariants(temperature);
+        Variants cached = cache.get(key(model, therapyType, message), value -> value.answers.size() >= wanted);
+        return cached != null ? cached.next() : null;
+    }
+
+    public void put(String model, String therapyType, String message, double temperature, String answer) {
+        int wanted = wantedVariants(temperature);
+        String key = key(model, therapyType, message);
+        Variants updated = cache.computeIfPresent(key, current -> current.with(answer, wanted));
+        if (updated == null) {
+            cache.put(key, new Variants(List.of(answer)));
+        }
+    }
+
+    public TtlLruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private int wantedVariants(double temperature) {
+        return temperature == 0.0 ? 1 : Math.max(1, variants);
+    }
+
+    private static String key(String model, String therapyType, String message) {
+        return model + '|' + therapyType + '|' + TextNormalizer.normalize(message);
+    }
+
+    static final class Variants {
+        final List<String> answers;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        Variants(List<String> answers) {
+            this.answers = answers;
+        }
+
+        String next() {
+            return answers.get(Math.floorMod(cursor.getAndIncrement(), answers.size()));
+        }
+
+        Variants with(String answer, int max) {
+            if (answers.size() >= max) {
+                return this;
+            }
+            List<String> updated = new ArrayList<>(answers);
+            updated.add(answer);
+            return new Variants(List.copyOf(updated));
+        }
+    }
+}
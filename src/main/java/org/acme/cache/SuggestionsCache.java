@@ -0,0 +1,54 @@
+package org.acme.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.util.TextNormalizer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Cache das perguntas sugeridas por (tipo de terapia, mensagem normalizada). Perguntas de
+ * abertura se repetem muito entre usuários e as sugestões geradas saem praticamente iguais.
+ */
+@ApplicationScoped
+public class SuggestionsCache {
+
+    @ConfigProperty(name = "chat.suggestions-cache.enabled", defaultValue = "true")
+    Boolean enabled;
+
+    @ConfigProperty(name = "chat.suggestions-cache.max-size", defaultValue = "5000")
+    Integer maxSize;
+
+    @ConfigProperty(name = "chat.suggestions-cache.ttl-minutes", defaultValue = "360")
+    Integer ttlMinutes;
+
+    private TtlLruCache<String, String[]> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new TtlLruCache<>("suggestions", maxSize, Duration.ofMinutes(ttlMinutes));
+    }
+
+    public String[] get(String therapyType, String message) {
+        if (!enabled) {
+            return null;
+        }
+        String[] suggestions = cache.get(key(therapyType, message));
+        return suggestions != null ? suggestions.clone() : null;
+    }
+
+    public void put(String therapyType, String message, String[] suggestions) {
+        if (enabled && suggestions != null && suggestions.length > 0) {
+            cache.put(key(therapyType, message), suggestions.clone());
+        }
+    }
+
+    public TtlLruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private static String key(String therapyType, String message) {
+        return (therapyType != null ? therapyType.toLowerCase() : "geral") + '|' + TextNormalizer.normalize(message);
+    }
+}
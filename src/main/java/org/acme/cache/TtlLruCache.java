@@ -0,0 +1,206 @@
+package org.acme.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache em memória com despejo LRU, expiração por TTL e limite de peso (memória estimada).
+ * Todas as operações são sincronizadas: as entradas são pequenas e o tempo no lock é curto.
+ */
+public class TtlLruCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+
+    // accessOrder = true: a iteração começa pela entrada usada há mais tempo
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TtlLruCache(String name, int maxEntries, long maxWeight, Duration ttl, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+    }
+
+    public TtlLruCache(String name, int maxEntries, Duration ttl) {
+        this(name, maxEntries, Long.MAX_VALUE, ttl, value -> 1);
+    }
+
+    public V get(K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * Como {@link #get(Object)}, mas uma entrada que não satisfaz {@code usable}
+     * é tratada (e contada) como miss, sem ser removida
+     */
+    public synchronized V get(K key, Predicate<V> usable) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (isExpired(entry)) {
+            remove(key, entry);
+            evictions++;
+            misses++;
+            return null;
+        }
+        if (!usable.test(entry.value)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        Entry<V> previous = map.put(key, new Entry<>(value, valueWeight, System.nanoTime()));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += valueWeight;
+        evictIfNeeded();
+    }
+
+    /**
+     * Guarda o valor só se não houver entrada válida para a chave; devolve a que já existia
+     * ou null quando o valor foi guardado. Não conta como hit/miss
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        Entry<V> entry = map.get(key);
+        if (entry != null && !isExpired(entry)) {
+            return entry.value;
+        }
+        put(key, value);
+        return null;
+    }
+
+    /**
+     * Atualiza a entrada somente se ela existir e não tiver expirado, mantendo o prazo
+     * original; não conta como hit/miss
+     */
+    public V computeIfPresent(K key, UnaryOperator<V> remapping) {
+        return computeIfPresent(key, remapping, false);
+    }
+
+    /**
+     * Como {@link #computeIfPresent(Object, UnaryOperator)}; com {@code refreshTtl} o prazo
+     * recomeça a contar, para valores que continuam em dia com a origem após a atualização
+     */
+    public synchronized V computeIfPresent(K key, UnaryOperator<V> remapping, boolean refreshTtl) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            remove(key, entry);
+            evictions++;
+            return null;
+        }
+        V updated = remapping.apply(entry.value);
+        long updatedWeight = weigher.applyAsLong(updated);
+        map.put(key, new Entry<>(updated, updatedWeight, refreshTtl ? System.nanoTime() : entry.createdAt));
+        weight += updatedWeight - entry.weight;
+        evictIfNeeded();
+        return updated;
+    }
+
+    public synchronized void invalidate(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    public synchronized Stats stats() {
+        Stats stats = new Stats();
+        stats.name = name;
+        stats.size = map.size();
+        stats.maxSize = maxEntries;
+        stats.weight = weight;
+        stats.hits = hits;
+        stats.misses = misses;
+        stats.evictions = evictions;
+        long requests = hits + misses;
+        stats.hitRate = requests == 0 ? 0.0 : (double) hits / requests;
+        return stats;
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return System.nanoTime() - entry.createdAt > ttlNanos;
+    }
+
+    private void remove(K key, Entry<V> entry) {
+        map.remove(key);
+        weight -= entry.weight;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = map.entrySet().iterator();
+        while ((map.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            Entry<V> entry = eldest.next().getValue();
+            eldest.remove();
+            weight -= entry.weight;
+            evictions++;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long weight;
+        final long createdAt;
+
+        Entry(V value, long weight, long createdAt) {
+            this.value = value;
+            this.weight = weight;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Fotografia dos contadores do cache
+     */
+    public static class Stats {
+        @JsonProperty("name")
+        public String name;
+
+        @JsonProperty("size")
+        public Integer size;
+
+        @JsonProperty("max_size")
+        public Integer maxSize;
+
+        @JsonProperty("weight")
+        public Long weight;
+
+        @JsonProperty("hits")
+        public Long hits;
+
+        @JsonProperty("misses")
+        public Long misses;
+
+        @JsonProperty("evictions")
+        public Long evictions;
+
+        @JsonProperty("hit_rate")
+        public Double hitRate;
+    }
+}
@@ -0,0 +1,302 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limitador adaptativo de chamadas simultâneas aos provedores de LLM (AIMD).
+ * O limite cresce aditivamente enquanto a latência fica perto da linha de base e cai
+ * multiplicativamente em 429/529, timeouts ou latência muito acima da base. Quem não
+ * consegue permissão espera numa fila limitada, com prioridade para as respostas do chat
+ * e prazo máximo por tipo de chamada. A espera é assíncrona ({@link #acquireAsync}) e não
+ * ocupa thread nenhuma. Cada provedor tem limite e fila próprios, com a mesma configuração.
+ * A latência de base é acompanhada por tipo de chamada: sentimento e sugestões levam uma
+ * fração do tempo de uma resposta completa e não podem servir de referência para ela.
+ */
+@ApplicationScoped
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger LOG = Logger.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    // Peso de cada amostra na média móvel da latência de base
+    private static final double BASELINE_ALPHA = 0.05;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "claude.limiter.enabled", defaultValue = "true")
+    Boolean enabled;
+
+    @ConfigProperty(name = "claude.limiter.initial-limit", defaultValue = "8")
+    Integer initialLimit;
+
+    @ConfigProperty(name = "claude.limiter.min-limit", defaultValue = "1")
+    Integer minLimit;
+
+    @ConfigProperty(name = "claude.limiter.max-limit", defaultValue = "64")
+    Integer maxLimit;
+
+    @ConfigProperty(name = "claude.limiter.max-queue", defaultValue = "100")
+    Integer maxQueue;
+
+    // Latência acima de base * tolerância conta como sinal de congestionamento
+    @ConfigProperty(name = "claude.limiter.latency-tolerance", defaultValue = "2.5")
+    Double latencyTolerance;
+
+    @ConfigProperty(name = "claude.limiter.backoff-ratio", defaultValue = "0.7")
+    Double backoffRatio;
+
+    @ConfigProperty(name = "claude.limiter.max-wait-ms.interactive", defaultValue = "10000")
+    Long interactiveMaxWaitMs;
+
+    @ConfigProperty(name = "claude.limiter.max-wait-ms.background", defaultValue = "3000")
+    Long backgroundMaxWaitMs;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Completa quando houver permissão no provedor ou falha com {@link LimiterRejectedException}
+     * ao estourar o prazo ou com a fila cheia
+     */
+    public CompletionStage<Void> acquireAsync(String provider, CallKind kind) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return pool(provider).acquire(kind);
+    }
+
+    /**
+     * Devolve a permissão e ajusta o limite do provedor com base no resultado da chamada,
+     * comparando a latência com a base do mesmo tipo
+     */
+    public void release(String provider, CallKind kind, long latencyNanos, boolean overloaded) {
+        if (enabled) {
+            pool(provider).release(kind, latencyNanos, overloaded);
+        }
+    }
+
+    int inFlight(String provider) {
+        return pool(provider).inFlight();
+    }
+
+    private Pool pool(String provider) {
+        return pools.computeIfAbsent(provider, Pool::new);
+    }
+
+    private long maxWaitMs(CallKind kind) {
+        return kind.isInteractive() ? interactiveMaxWaitMs : backgroundMaxWaitMs;
+    }
+
+    private static int priority(CallKind kind) {
+        return kind.isInteractive() ? 0 : 1;
+    }
+
+    /**
+     * Limite, chamadas em andamento e fila de um provedor
+     */
+    private final class Pool {
+        final String provider;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+
+        private double limit;
+        private int inFlight;
+        private long sequence;
+        // Latência de base por tipo de chamada (índice = ordinal)
+        private final double[] baselineNanos = new double[CallKind.values().length];
+
+        Pool(String provider) {
+            this.provider = provider;
+            this.limit = initialLimit;
+            Gauge.builder("claude.limiter.limit", this, p -> p.limit).tag("provider", provider).register(registry);
+            Gauge.builder("claude.limiter.in_flight", this, p -> p.inFlight).tag("provider", provider).register(registry);
+            Gauge.builder("claude.limiter.queue", this, Pool::queueDepth).tag("provider", provider).register(registry);
+        }
+
+        CompletionStage<Void> acquire(CallKind kind) {
+            Waiter waiter;
+            lock.lock();
+            try {
+                if (inFlight < (int) limit && waiters.isEmpty()) {
+                    inFlight++;
+                    return CompletableFuture.completedFuture(null);
+                }
+                if (waiters.size() >= maxQueue) {
+                    return CompletableFuture.failedFuture(reject(kind, "queue_full"));
+                }
+                waiter = new Waiter(priority(kind), sequence++);
+                waiters.add(waiter);
+            } finally {
+                lock.unlock();
+            }
+
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            waiter.future.orTimeout(maxWaitMs(kind), TimeUnit.MILLISECONDS).whenComplete((ignored, failure) -> {
+                if (failure == null) {
+                    // Quem pediu desistiu entre a liberação e aqui: a permissão não será usada
+                    if (!result.complete(null)) {
+                        releaseUnused();
+                    }
+                    return;
+                }
+                lock.lock();
+                try {
+                    waiters.remove(waiter);
+                } finally {
+                    lock.unlock();
+                }
+                if (!(failure instanceof CancellationException)) {
+                    result.completeExceptionally(reject(kind, "deadline"));
+                }
+            });
+            // Cancelamento de quem espera (timeout por tipo, hedging) tira o waiter da fila;
+            // se ele já tinha sido liberado, completeWaiters devolve a permissão
+            result.whenComplete((ignored, failure) -> {
+                if (result.isCancelled()) {
+                    waiter.future.cancel(false);
+                }
+            });
+            return result;
+        }
+
+        void release(CallKind kind, long latencyNanos, boolean overloaded) {
+            List<Waiter> granted;
+            lock.lock();
+            try {
+                inFlight--;
+                adjust(kind, latencyNanos, overloaded);
+                granted = grantWaiters();
+            } finally {
+                lock.unlock();
+            }
+            completeWaiters(granted);
+        }
+
+        /**
+         * Devolve uma permissão concedida mas nunca usada, sem ajustar o limite
+         */
+        private void releaseUnused() {
+            List<Waiter> granted;
+            lock.lock();
+            try {
+                inFlight--;
+                granted = grantWaiters();
+            } finally {
+                lock.unlock();
+            }
+            completeWaiters(granted);
+        }
+
+        private void adjust(CallKind kind, long latencyNanos, boolean overloaded) {
+            double baseline = baselineNanos[kind.ordinal()];
+            boolean slow = baseline > 0 && latencyNanos > baseline * latencyTolerance;
+            if (overloaded || slow) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * backoffRatio);
+                LOG.debugf("Limite de concorrência (%s) reduzido de %.1f para %.1f (%s em %s)",
+                        provider, previous, limit, overloaded ? "sobrecarga" : "latência", kind.tag());
+            } else {
+                // Aumento aditivo: cerca de +1 a cada "janela" de chamadas bem-sucedidas
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+
+            if (!overloaded && latencyNanos > 0) {
+                baselineNanos[kind.ordinal()] = baseline == 0
+                        ? latencyNanos
+                        : baseline + BASELINE_ALPHA * (latencyNanos - baseline);
+            }
+        }
+
+        /**
+         * Tira da fila quem pode ser liberado; os waiters devolvidos são completados fora
+         * do lock para que os callbacks não rodem segurando-o
+         */
+        private List<Waiter> grantWaiters() {
+            List<Waiter> granted = null;
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                if (granted == null) {
+                    granted = new ArrayList<>();
+                }
+                granted.add(waiters.poll());
+                inFlight++;
+            }
+            return granted;
+        }
+
+        private void completeWaiters(List<Waiter> granted) {
+            if (granted == null) {
+                return;
+            }
+            for (Waiter waiter : granted) {
+                // Prazo estourou ou a espera foi cancelada entre a liberação e aqui:
+                // a permissão volta para o próximo da fila
+                if (!waiter.future.complete(null)) {
+                    releaseUnused();
+                }
+            }
+        }
+
+        private LimiterRejectedException reject(CallKind kind, String reason) {
+            Counter.builder("claude.limiter.rejections")
+                    .tag("provider", provider)
+                    .tag("kind", kind.tag())
+                    .tag("reason", reason)
+                    .register(registry)
+                    .increment();
+            return new LimiterRejectedException("Chamada " + kind.tag() + " (" + provider
+                    + ") rejeitada pelo limitador: " + reason);
+        }
+
+        int inFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double queueDepth() {
+            lock.lock();
+            try {
+                return waiters.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        final int priority;
+        final long order;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Waiter(int priority, long order) {
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
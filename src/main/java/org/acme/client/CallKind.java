@@ -0,0 +1,23 @@
+package org.acme.client;
+
+/**
+ * Tipo de chamada feita ao modelo, usado em métricas e políticas por chamada
+ */
+public enum CallKind {
+    RESPONSE,
+    COMBINED,
+    SENTIMENT,
+    SUGGESTIONS,
+    SUMMARY;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Chamadas cuja resposta o usuário está esperando na tela
+     */
+    public boolean isInteractive() {
+        return this == RESPONSE || this == COMBINED;
+    }
+}
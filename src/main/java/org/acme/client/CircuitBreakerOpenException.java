@@ -0,0 +1,11 @@
+package org.acme.client;
+
+/**
+ * Lançada sem chamar a API quando o circuito do tipo de chamada está aberto
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message, null, false, false);
+    }
+}
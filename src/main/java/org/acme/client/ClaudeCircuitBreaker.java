@@ -0,0 +1,241 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker por provedor e tipo de chamada. Com o circuito aberto a chamada falha em
+ * milissegundos com {@link CircuitBreakerOpenException}: o roteador passa ao próximo provedor
+ * e, sem nenhum, o ClaudeService serve o fallback local, em vez de esperar retentativas e o
+ * read-timeout durante um incidente do provedor.
+ * Depois de claude.circuit-breaker.open-ms o circuito fica meio-aberto e deixa passar
+ * uma única chamada de teste, que decide se ele fecha ou volta a abrir.
+ * Os valores podem ser sobrescritos por tipo, ex.: claude.circuit-breaker.suggestions.failure-ratio,
+ * e por provedor, ex.: claude.circuit-breaker.openai.open-ms ou claude.circuit-breaker.openai.summary.window.
+ */
+@ApplicationScoped
+public class ClaudeCircuitBreaker {
+
+    private static final Logger LOG = Logger.getLogger(ClaudeCircuitBreaker.class);
+
+    private static final String PREFIX = "claude.circuit-breaker.";
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "claude.circuit-breaker.enabled", defaultValue = "true")
+    Boolean enabled;
+
+    private final Map<String, Map<CallKind, Circuit>> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Libera a chamada ou lança {@link CircuitBreakerOpenException} imediatamente
+     */
+    public void acquire(String provider, CallKind kind) {
+        if (enabled && !circuit(provider, kind).tryAcquire()) {
+            Counter.builder("claude.circuit.rejections")
+                    .description("Chamadas rejeitadas com o circuito aberto")
+                    .tag("provider", provider)
+                    .tag("kind", kind.tag())
+                    .register(registry)
+                    .increment();
+            throw new CircuitBreakerOpenException("Circuito " + provider + "/" + kind.tag()
+                    + " aberto: chamada ao provedor não realizada");
+        }
+    }
+
+    public void onSuccess(String provider, CallKind kind) {
+        if (enabled) {
+            circuit(provider, kind).record(true);
+        }
+    }
+
+    /**
+     * Registra a falha; erros do cliente (4xx exceto 429) não indicam problema no provedor
+     * e contam como sucesso para o circuito. Rejeições do limitador não chegaram ao
+     * provedor e não contam.
+     */
+    public void onFailure(String provider, CallKind kind, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+        if (error instanceof LimiterRejectedException) {
+            circuit(provider, kind).abandon();
+        } else {
+            circuit(provider, kind).record(!isProviderFailure(error));
+        }
+    }
+
+    /**
+     * Chamada liberada que terminou sem resultado (ex.: stream cancelado pelo cliente)
+     */
+    public void onAbandon(String provider, CallKind kind) {
+        if (enabled) {
+            circuit(provider, kind).abandon();
+        }
+    }
+
+    static boolean isProviderFailure(Throwable error) {
+        Response response = ClaudeRetryPolicy.responseOf(error);
+        if (response != null) {
+            return ClaudeRetryPolicy.isRetryable(response.getStatus());
+        }
+        // Sem resposta HTTP: timeout ou falha de conexão
+        return error instanceof ProcessingException || ClaudeGateway.isOverload(error);
+    }
+
+    private Circuit circuit(String provider, CallKind kind) {
+        return circuits.computeIfAbsent(provider, this::newCircuits).get(kind);
+    }
+
+    private Map<CallKind, Circuit> newCircuits(String provider) {
+        Map<CallKind, Circuit> byKind = new EnumMap<>(CallKind.class);
+        for (CallKind kind : CallKind.values()) {
+            Circuit circuit = new Circuit(provider, kind,
+                    setting(provider, kind, "window", Integer.class, 20),
+                    setting(provider, kind, "min-calls", Integer.class, 10),
+                    setting(provider, kind, "failure-ratio", Double.class, 0.5),
+                    setting(provider, kind, "open-ms", Long.class, 15000L));
+            byKind.put(kind, circuit);
+            Gauge.builder("claude.circuit.state", circuit, c -> c.state.ordinal())
+                    .description("Estado do circuito (0 fechado, 1 meio-aberto, 2 aberto)")
+                    .tag("provider", provider)
+                    .tag("kind", kind.tag())
+                    .register(registry);
+        }
+        return byKind;
+    }
+
+    private <T> T setting(String provider, CallKind kind, String name, Class<T> type, T defaultValue) {
+        return config.getOptionalValue(PREFIX + provider + "." + kind.tag() + "." + name, type)
+                .or(() -> config.getOptionalValue(PREFIX + provider + "." + name, type))
+                .or(() -> config.getOptionalValue(PREFIX + kind.tag() + "." + name, type))
+                .or(() -> config.getOptionalValue(PREFIX + name, type))
+                .orElse(defaultValue);
+    }
+
+    private void transition(Circuit circuit, State to) {
+        LOG.warnf("Circuito %s/%s: %s -> %s", circuit.provider, circuit.kind.tag(), circuit.state, to);
+        Counter.builder("claude.circuit.transitions")
+                .description("Mudanças de estado do circuit breaker")
+                .tag("provider", circuit.provider)
+                .tag("kind", circuit.kind.tag())
+                .tag("to", to.name().toLowerCase())
+                .register(registry)
+                .increment();
+        circuit.state = to;
+    }
+
+    /**
+     * Janela deslizante com os resultados das últimas chamadas de um tipo a um provedor
+     */
+    private final class Circuit {
+        final String provider;
+        final CallKind kind;
+        final boolean[] outcomes;
+        final int minCalls;
+        final double failureRatio;
+        final long openNanos;
+
+        volatile State state = State.CLOSED;
+        int next;
+        int recorded;
+        int failures;
+        long openedAt;
+        boolean probeInFlight;
+
+        Circuit(String provider, CallKind kind, int window, int minCalls, double failureRatio, long openMs) {
+            this.provider = provider;
+            this.kind = kind;
+            this.outcomes = new boolean[window];
+            this.minCalls = Math.min(minCalls, window);
+            this.failureRatio = failureRatio;
+            this.openNanos = openMs * 1_000_000L;
+        }
+
+        synchronized boolean tryAcquire() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAt < openNanos) {
+                        return false;
+                    }
+                    transition(this, State.HALF_OPEN);
+                    probeInFlight = true;
+                    return true;
+                default:
+                    // Meio-aberto: só uma chamada de teste por vez
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        }
+
+        synchronized void record(boolean success) {
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+                if (success) {
+                    reset();
+                    transition(this, State.CLOSED);
+                } else {
+                    open();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+
+            if (recorded == outcomes.length && !outcomes[next]) {
+                failures--;
+            }
+            outcomes[next] = success;
+            if (!success) {
+                failures++;
+            }
+            next = (next + 1) % outcomes.length;
+            recorded = Math.min(recorded + 1, outcomes.length);
+
+            if (recorded >= minCalls && failures >= recorded * failureRatio) {
+                open();
+            }
+        }
+
+        synchronized void abandon() {
+            probeInFlight = false;
+        }
+
+        private void open() {
+            openedAt = System.nanoTime();
+            transition(this, State.OPEN);
+        }
+
+        private void reset() {
+            next = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.acme.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.acme.dto.ClaudeDTO;
+import org.acme.metrics.ClaudeMetrics;
+import org.acme.util.TokenEstimator;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+
+/**
+ * Ponto único de acesso ao ClaudeClient: toda chamada informa seu {@link CallKind}
+ * para que latência, tokens e erros sejam medidos por tipo de chamada, passa pelo
+ * circuit breaker, respeita o ritmo de rate limit, passa pelo limitador de concorrência
+ * e é repetida conforme a {@link ClaudeRetryPolicy}. Toda a cadeia é não bloqueante.
+ * É o provedor "claude" do {@link LlmRouter}.
+ */
+@ApplicationScoped
+public class ClaudeGateway implements LlmProvider {
+
+    private static final Logger LOG = Logger.getLogger(ClaudeGateway.class);
+
+    private static final String PROVIDER = "claude";
+
+    @Inject
+    @RestClient
+    ClaudeClient claudeClient;
+
+    @Inject
+    ClaudeMetrics metrics;
+
+    @Inject
+    AdaptiveConcurrencyLimiter limiter;
+
+    @Inject
+    RateLimitPacer pacer;
+
+    @Inject
+    ClaudeRetryPolicy retryPolicy;
+
+    @Inject
+    ClaudeCircuitBreaker circuitBreaker;
+
+    @Inject
+    ModelTiers modelTiers;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return PROVIDER;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
+
+    /**
+     * Chamada não bloqueante: ritmo, fila do limitador e espera entre tentativas são
+     * agendados, sem prender thread enquanto o modelo responde
+     */
+    @Override
+    public Uni<ClaudeDTO.MessageResponse> createMessage(CallKind kind, ClaudeDTO.MessageRequest request) {
+        return withRetry(kind, request, 0, System.nanoTime());
+    }
+
+    @Override
+    public Multi<String> streamMessage(CallKind kind, ClaudeDTO.MessageRequest request) {
+        // Sem retentativa: parte da resposta pode já ter sido entregue ao usuário.
+        // Ritmo e fila do limitador só começam na assinatura, agendados como no createMessage
+        return Multi.createFrom().deferred(() -> {
+            circuitBreaker.acquire(PROVIDER, kind);
+            return paced(kind, request)
+                    .chain(() -> Uni.createFrom().completionStage(limiter.acquireAsync(PROVIDER, kind)))
+                    .onFailure().invoke(e -> circuitBreaker.onFailure(PROVIDER, kind, e))
+                    .onCancellation().invoke(() -> circuitBreaker.onAbandon(PROVIDER, kind))
+                    .onItem().transformToMulti(ignored -> stream(kind, request));
+        });
+    }
+
+    /**
+     * Stream já com permissão do limitador, que é devolvida ao terminar. Um evento "error"
+     * no meio do stream (ex.: overloaded_error) vira falha do Multi: conta no circuito e no
+     * limitador como o status HTTP equivalente, e quem consome descarta a resposta parcial.
+     */
+    private Multi<String> stream(CallKind kind, ClaudeDTO.MessageRequest request) {
+        long start = System.nanoTime();
+        return claudeClient.streamMessage(request)
+                .invoke(this::failOnErrorEvent)
+                .onCompletion().invoke(() -> {
+                    metrics.recordCall(kind, request.model, System.nanoTime() - start, "success");
+                    circuitBreaker.onSuccess(PROVIDER, kind);
+                })
+                .onFailure().invoke(e -> {
+                    metrics.recordCall(kind, request.model, System.nanoTime() - start, "error");
+                    metrics.recordError(kind, e);
+                    recordRateLimit(e);
+                    circuitBreaker.onFailure(PROVIDER, kind, e);
+                })
+                .onTermination().invoke((failure, cancelled) -> {
+                    if (cancelled) {
+                        circuitBreaker.onAbandon(PROVIDER, kind);
+                    }
+                    limiter.release(PROVIDER, kind, System.nanoTime() - start, failure != null && isOverload(failure));
+                });
+    }
+
+    private Uni<ClaudeDTO.MessageResponse> withRetry(CallKind kind, ClaudeDTO.MessageRequest request,
+                                                     int attempt, long start) {
+        return attempt(kind, request).onFailure().recoverWithUni(e -> {
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            Duration delay = retryPolicy.nextDelay(attempt, e, elapsedMillis);
+            if (delay == null) {
+                return Uni.createFrom().failure(e);
+            }
+            int status = ClaudeRetryPolicy.responseOf(e).getStatus();
+            metrics.recordRetry(kind, status);
+            LOG.warnf("Chamada %s falhou com status %d; tentativa %d em %d ms",
+                    kind.tag(), status, attempt + 2, delay.toMillis());
+            return Uni.createFrom().voidItem()
+                    .onItem().delayIt().by(delay)
+                    .chain(() -> withRetry(kind, request, attempt + 1, start));
+        });
+    }
+
+    private Uni<ClaudeDTO.MessageResponse> attempt(CallKind kind, ClaudeDTO.MessageRequest request) {
+        return Uni.createFrom().deferred(() -> {
+            circuitBreaker.acquire(PROVIDER, kind);
+            return paced(kind, request)
+                    .chain(() -> Uni.createFrom().completionStage(limiter.acquireAsync(PROVIDER, kind)))
+                    .chain(() -> call(kind, request))
+                    .onItem().invoke(() -> circuitBreaker.onSuccess(PROVIDER, kind))
+                    .onFailure().invoke(e -> circuitBreaker.onFailure(PROVIDER, kind, e))
+                    .onCancellation().invoke(() -> circuitBreaker.onAbandon(PROVIDER, kind));
+        });
+    }
+
+    private Uni<Void> paced(CallKind kind, ClaudeDTO.MessageRequest request) {
+        long delayMillis = pacer.reserve(kind, TokenEstimator.estimate(request));
+        Uni<Void> now = Uni.createFrom().voidItem();
+        return delayMillis > 0 ? now.onItem().delayIt().by(Duration.ofMillis(delayMillis)) : now;
+    }
+
+    /**
+     * Uma tentativa já com permissão do limitador, que é devolvida ao terminar. O timeout
+     * por tipo fica aqui, e não no roteador, para que estourá-lo conte como falha no circuito
+     * e como sobrecarga no limitador; cancelado por fora, seria só um abandono.
+     */
+    private Uni<ClaudeDTO.MessageResponse> call(CallKind kind, ClaudeDTO.MessageRequest request) {
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return claudeClient.createMessage(request)
+                    .ifNoItem().after(modelTiers.timeout(kind)).fail()
+                    .onItem().transform(response -> {
+                        pacer.update(response.getStatus(), response::getHeaderString);
+                        ClaudeDTO.MessageResponse body = response.getEntity();
+                        metrics.recordCall(kind, request.model, System.nanoTime() - start, "success");
+                        metrics.recordUsage(kind, request.model, body.usage);
+                        return body;
+                    })
+                    .onFailure().invoke(e -> {
+                        recordRateLimit(e);
+                        metrics.recordCall(kind, request.model, System.nanoTime() - start, "error");
+                        metrics.recordError(kind, e);
+                    })
+                    .onTermination().invoke((body, failure, cancelled) ->
+                            limiter.release(PROVIDER, kind, System.nanoTime() - start, failure != null && isOverload(failure)));
+        });
+    }
+
+    private void failOnErrorEvent(String data) {
+        // Só os eventos de erro mencionam "error"; os demais não precisam ser lidos aqui
+        if (!data.contains("error")) {
+            return;
+        }
+        ClaudeDTO.StreamEvent event;
+        try {
+            event = objectMapper.readValue(data, ClaudeDTO.StreamEvent.class);
+        } catch (Exception e) {
+            return;
+        }
+        if ("error".equals(event.type)) {
+            String type = event.error != null ? event.error.type : null;
+            String message = event.error != null ? event.error.message : null;
+            throw new WebApplicationException("Erro no stream do Claude: " + type + " (" + message + ")",
+                    streamErrorStatus(type));
+        }
+    }
+
+    /**
+     * Status HTTP equivalente ao tipo de erro da API, para reaproveitar a classificação
+     * de falhas do circuito e do limitador
+     */
+    static int streamErrorStatus(String type) {
+        if (type == null) {
+            return 500;
+        }
+        return switch (type) {
+            case "overloaded_error" -> 529;
+            case "rate_limit_error" -> 429;
+            case "invalid_request_error" -> 400;
+            case "authentication_error" -> 401;
+            case "permission_error" -> 403;
+            case "not_found_error" -> 404;
+            case "request_too_large" -> 413;
+            case "timeout_error" -> 504;
+            default -> 500;
+        };
+    }
+
+    private void recordRateLimit(Throwable error) {
+        Response response = ClaudeRetryPolicy.responseOf(error);
+        if (response != null) {
+            pacer.update(response.getStatus(), response::getHeaderString);
+        }
+    }
+
+    /**
+     * 429/529 e timeouts indicam que o provedor está saturado
+     */
+    static boolean isOverload(Throwable error) {
+        Response response = ClaudeRetryPolicy.responseOf(error);
+        if (response != null && (response.getStatus() == 429 || response.getStatus() == 529)) {
+            return true;
+        }
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current.getClass().getSimpleName().contains("Timeout")) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+}
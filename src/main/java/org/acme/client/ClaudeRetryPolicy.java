@@ -0,0 +1,77 @@
+package org.acme.client;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide se uma falha da API do Claude deve ser repetida e quanto esperar.
+ * Só 429, 529 e 5xx são repetidos; o retry-after enviado pelo servidor tem precedência
+ * sobre o backoff exponencial, e x-should-retry: false encerra as tentativas.
+ */
+@ApplicationScoped
+public class ClaudeRetryPolicy {
+
+    @ConfigProperty(name = "claude.retry.max-retries", defaultValue = "3")
+    Integer maxRetries;
+
+    @ConfigProperty(name = "claude.retry.base-delay-ms", defaultValue = "500")
+    Long baseDelayMs;
+
+    // Um retry-after maior que isso não vale a espera: a falha sobe para o fallback
+    @ConfigProperty(name = "claude.retry.max-delay-ms", defaultValue = "8000")
+    Long maxDelayMs;
+
+    @ConfigProperty(name = "claude.retry.max-duration-ms", defaultValue = "30000")
+    Long maxDurationMs;
+
+    /**
+     * Espera antes da próxima tentativa ou null se a falha não deve ser repetida
+     *
+     * @param attempt       tentativas já feitas, começando em 0
+     * @param elapsedMillis tempo gasto desde a primeira tentativa
+     */
+    public Duration nextDelay(int attempt, Throwable error, long elapsedMillis) {
+        Response response = responseOf(error);
+        if (attempt >= maxRetries || response == null || !isRetryable(response.getStatus())) {
+            return null;
+        }
+        if ("false".equalsIgnoreCase(response.getHeaderString("x-should-retry"))) {
+            return null;
+        }
+
+        Duration delay = RateLimitPacer.retryAfter(response::getHeaderString);
+        if (delay == null) {
+            // Backoff exponencial com jitter completo
+            long ceiling = Math.min(maxDelayMs, baseDelayMs << attempt);
+            delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(baseDelayMs / 2, ceiling + 1));
+        } else if (delay.toMillis() > maxDelayMs) {
+            return null;
+        }
+
+        return elapsedMillis + delay.toMillis() > maxDurationMs ? null : delay;
+    }
+
+    public static boolean isRetryable(int status) {
+        return status == 429 || status == 529 || (status >= 500 && status < 600);
+    }
+
+    /**
+     * Resposta HTTP associada à falha, procurando na cadeia de causas
+     */
+    public static Response responseOf(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof WebApplicationException wae && wae.getResponse() != null) {
+                return wae.getResponse();
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package org.acme.client;
+
+/**
+ * Lançada quando o limitador de concorrência não consegue liberar a chamada dentro do prazo
+ */
+public class LimiterRejectedException extends RuntimeException {
+
+    public LimiterRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package org.acme.client;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.acme.dto.ClaudeDTO;
+
+/**
+ * Provedor de LLM atrás do {@link LlmRouter}. O formato canônico é o da Messages API do
+ * Claude (ClaudeDTO): provedores com outro protocolo traduzem ida e volta.
+ */
+public interface LlmProvider {
+
+    /**
+     * Nome usado na configuração do roteador e nas métricas (ex.: claude, openai)
+     */
+    String name();
+
+    boolean isEnabled();
+
+    Uni<ClaudeDTO.MessageResponse> createMessage(CallKind kind, ClaudeDTO.MessageRequest request);
+
+    default boolean supportsStreaming() {
+        return false;
+    }
+
+    /**
+     * Eventos SSE no formato da Messages API; só chamado se {@link #supportsStreaming()}
+     */
+    default Multi<String> streamMessage(CallKind kind, ClaudeDTO.MessageRequest request) {
+        return Multi.createFrom().failure(new UnsupportedOperationException(name() + " não suporta streaming"));
+    }
+}
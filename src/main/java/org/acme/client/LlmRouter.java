@@ -0,0 +1,265 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.acme.dto.ClaudeDTO;
+import org.eclipse.microprofile.config.Config;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Escolhe o provedor de LLM por tipo de chamada. Mantém, por (tipo, provedor), médias móveis
+ * de latência e taxa de erro: o primeiro provedor configurado é o preferido enquanto estiver
+ * saudável, um alternativo assume quando é claramente mais rápido, e uma falha (inclusive
+ * circuito aberto) é repassada automaticamente ao próximo da lista. Um provedor degradado
+ * sai da frente e, depois de llm.router.recovery-ms sem tráfego, volta a ser testado.
+ * Ordem por tipo em llm.router.providers.&lt;tipo&gt;, com padrão em llm.router.providers.
+ */
+@ApplicationScoped
+public class LlmRouter {
+
+    private static final Logger LOG = Logger.getLogger(LlmRouter.class);
+
+    private static final String PREFIX = "llm.router.";
+
+    // Peso de cada amostra nas médias móveis
+    private static final double ALPHA = 0.1;
+
+    @Inject
+    Instance<LlmProvider> providers;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Config config;
+
+    private final Map<CallKind, List<Route>> routes = new EnumMap<>(CallKind.class);
+
+    private double maxErrorRate;
+    private int minSamples;
+    private double latencyMargin;
+    private double exploreRatio;
+    private long recoveryNanos;
+
+    @PostConstruct
+    void init() {
+        init(providers);
+    }
+
+    /**
+     * Monta as rotas a partir dos provedores disponíveis (separado do bean para os testes)
+     */
+    void init(Iterable<? extends LlmProvider> available) {
+        maxErrorRate = config.getOptionalValue(PREFIX + "max-error-rate", Double.class).orElse(0.3);
+        minSamples = config.getOptionalValue(PREFIX + "min-samples", Integer.class).orElse(10);
+        latencyMargin = config.getOptionalValue(PREFIX + "latency-margin", Double.class).orElse(1.3);
+        exploreRatio = config.getOptionalValue(PREFIX + "explore-ratio", Double.class).orElse(0.02);
+        recoveryNanos = config.getOptionalValue(PREFIX + "recovery-ms", Long.class).orElse(30000L) * 1_000_000L;
+
+        Map<String, LlmProvider> byName = new LinkedHashMap<>();
+        for (LlmProvider provider : available) {
+            byName.put(provider.name(), provider);
+        }
+
+        for (CallKind kind : CallKind.values()) {
+            String names = config.getOptionalValue(PREFIX + "providers." + kind.tag(), String.class)
+                    .or(() -> config.getOptionalValue(PREFIX + "providers", String.class))
+                    .orElse("claude");
+            List<Route> kindRoutes = new ArrayList<>();
+            for (String name : names.split(",")) {
+                LlmProvider provider = byName.get(name.trim());
+                if (provider == null) {
+                    LOG.warnf("Provedor de LLM desconhecido em %sproviders: %s", PREFIX, name);
+                } else if (provider.isEnabled()) {
+                    Route route = new Route(kind, provider);
+                    kindRoutes.add(route);
+                    Gauge.builder("llm.router.latency", route, r -> r.latencyMs)
+                            .description("Latência média móvel por provedor (ms)")
+                            .tag("kind", kind.tag()).tag("provider", provider.name())
+                            .register(registry);
+                    Gauge.builder("llm.router.error_rate", route, r -> r.errorRate)
+                            .description("Taxa de erro média móvel por provedor")
+                            .tag("kind", kind.tag()).tag("provider", provider.name())
+                            .register(registry);
+                }
+            }
+            if (kindRoutes.isEmpty()) {
+                throw new IllegalStateException("Nenhum provedor de LLM habilitado para " + kind.tag());
+            }
+            routes.put(kind, kindRoutes);
+        }
+    }
+
+    public ClaudeDTO.MessageResponse createMessage(CallKind kind, ClaudeDTO.MessageRequest request) {
+        return createMessageAsync(kind, request).await().indefinitely();
+    }
+
+    public Uni<ClaudeDTO.MessageResponse> createMessageAsync(CallKind kind, ClaudeDTO.MessageRequest request) {
+        return attempt(kind, request, candidates(kind), 0);
+    }
+
+    /**
+     * Como {@link #createMessageAsync}, mas começando pelo alternativo ao provedor escolhido
+     * (quando houver mais de um), com failover para os demais. Usado pelo hedging.
+     */
+    public Uni<ClaudeDTO.MessageResponse> createMessageOnAlternate(CallKind kind, ClaudeDTO.MessageRequest request) {
+        List<Route> order = candidates(kind);
+        if (order.size() > 1) {
+            order = new ArrayList<>(order);
+            order.add(0, order.remove(1));
+        }
+        return attempt(kind, request, order, 0);
+    }
+
+    /**
+     * Streaming vai para o primeiro provedor saudável que suporte; sem failover no meio do stream
+     */
+    public Multi<String> streamMessage(CallKind kind, ClaudeDTO.MessageRequest request) {
+        for (Route route : candidates(kind)) {
+            if (route.provider.supportsStreaming()) {
+                selected(route);
+                return route.provider.streamMessage(kind, request);
+            }
+        }
+        return Multi.createFrom().failure(
+                new IllegalStateException("Nenhum provedor com streaming habilitado para " + kind.tag()));
+    }
+
+    private Uni<ClaudeDTO.MessageResponse> attempt(CallKind kind, ClaudeDTO.MessageRequest request,
+                                                   List<Route> order, int index) {
+        Route route = order.get(index);
+        return Uni.createFrom().deferred(() -> {
+            selected(route);
+            long start = System.nanoTime();
+            return route.provider.createMessage(kind, request)
+                    .onItem().invoke(() -> route.record(System.nanoTime() - start, false))
+                    .onFailure().recoverWithUni(e -> {
+                        route.record(System.nanoTime() - start, isProviderFailure(e));
+                        if (index + 1 >= order.size()) {
+                            return Uni.createFrom().failure(e);
+                        }
+                        Route next = order.get(index + 1);
+                        LOG.warnf("Chamada %s falhou em %s (%s); tentando %s", kind.tag(),
+                                route.provider.name(), e.getClass().getSimpleName(), next.provider.name());
+                        Counter.builder("llm.router.failovers")
+                                .description("Chamadas repassadas ao próximo provedor após falha")
+                                .tag("kind", kind.tag())
+                                .tag("from", route.provider.name())
+                                .tag("to", next.provider.name())
+                                .register(registry)
+                                .increment();
+                        return attempt(kind, request, order, index + 1);
+                    });
+        });
+    }
+
+    /**
+     * Ordem de tentativa: configurada, com degradados no fim; um alternativo saudável vai
+     * para a frente se for mais rápido que o preferido pela margem configurada
+     */
+    List<Route> candidates(CallKind kind) {
+        List<Route> configured = routes.get(kind);
+        if (configured.size() == 1) {
+            return configured;
+        }
+
+        List<Route> healthy = new ArrayList<>(configured.size());
+        List<Route> degraded = new ArrayList<>();
+        for (Route route : configured) {
+            (route.isDegraded() ? degraded : healthy).add(route);
+        }
+
+        if (healthy.size() > 1) {
+            Route preferred = healthy.get(0);
+            Route fastest = preferred;
+            for (Route route : healthy) {
+                if (route.hasSamples() && fastest.hasSamples()
+                        && route.latencyMs * latencyMargin < fastest.latencyMs) {
+                    fastest = route;
+                }
+            }
+            if (fastest != preferred) {
+                healthy.remove(fastest);
+                healthy.add(0, fastest);
+            } else if (ThreadLocalRandom.current().nextDouble() < exploreRatio) {
+                // Exploração: mantém atualizadas as médias dos alternativos
+                healthy.add(0, healthy.remove(1));
+            }
+        }
+
+        healthy.addAll(degraded);
+        return healthy;
+    }
+
+    private void selected(Route route) {
+        Counter.builder("llm.router.selected")
+                .description("Chamadas enviadas a cada provedor")
+                .tag("kind", route.kind.tag())
+                .tag("provider", route.provider.name())
+                .register(registry)
+                .increment();
+    }
+
+    private static boolean isProviderFailure(Throwable error) {
+        return error instanceof CircuitBreakerOpenException || ClaudeCircuitBreaker.isProviderFailure(error);
+    }
+
+    /**
+     * Saúde de um provedor para um tipo de chamada
+     */
+    final class Route {
+        final CallKind kind;
+        final LlmProvider provider;
+
+        volatile double latencyMs;
+        volatile double errorRate;
+        volatile long samples;
+        volatile long lastSampleNanos;
+
+        Route(CallKind kind, LlmProvider provider) {
+            this.kind = kind;
+            this.provider = provider;
+        }
+
+        synchronized void record(long latencyNanos, boolean failed) {
+            samples++;
+            lastSampleNanos = System.nanoTime();
+            errorRate += ALPHA * ((failed ? 1.0 : 0.0) - errorRate);
+            if (!failed) {
+                double millis = latencyNanos / 1_000_000.0;
+                latencyMs = latencyMs == 0 ? millis : latencyMs + ALPHA * (millis - latencyMs);
+            }
+        }
+
+        boolean hasSamples() {
+            return samples >= minSamples;
+        }
+
+        synchronized boolean isDegraded() {
+            if (!hasSamples() || errorRate <= maxErrorRate) {
+                return false;
+            }
+            if (System.nanoTime() - lastSampleNanos > recoveryNanos) {
+                // Recomeça do zero, como um circuito meio-aberto
+                samples = 0;
+                errorRate = 0;
+                return false;
+            }
+            return true;
+        }
+    }
+}
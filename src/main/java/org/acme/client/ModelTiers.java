@@ -0,0 +1,108 @@
+package org.acme.client;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.dto.ClaudeDTO;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Modelo, max tokens, temperatura e timeout por tipo de chamada. A resposta principal
+ * (e a combinada) continua em claude.model / claude.max.tokens / claude.temperature;
+ * sentimento, sugestões e resumo são tarefas simples e vão por padrão para o modelo
+ * pequeno em claude.tier.small-model. Os valores das tarefas auxiliares podem ser
+ * sobrescritos por tipo, ex.: claude.tier.sentiment.model; o timeout vale para todos,
+ * ex.: claude.tier.response.timeout-ms.
+ */
+@ApplicationScoped
+public class ModelTiers {
+
+    private static final String PREFIX = "claude.tier.";
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "claude.model", defaultValue = "claude-sonnet-4-20250514")
+    String model;
+
+    @ConfigProperty(name = "claude.max.tokens", defaultValue = "1024")
+    Integer maxTokens;
+
+    @ConfigProperty(name = "claude.temperature", defaultValue = "0.7")
+    Double temperature;
+
+    @ConfigProperty(name = "claude.tier.small-model", defaultValue = "claude-3-5-haiku-20241022")
+    String smallModel;
+
+    @ConfigProperty(name = "chat.summary.max-tokens", defaultValue = "300")
+    Integer summaryMaxTokens;
+
+    private final Map<CallKind, Tier> tiers = new EnumMap<>(CallKind.class);
+
+    @PostConstruct
+    void init() {
+        // A combinada devolve resposta + sentimento + sugestões em JSON: precisa de folga nos tokens
+        tiers.put(CallKind.RESPONSE, tier(CallKind.RESPONSE, model, maxTokens, temperature, 30000L));
+        tiers.put(CallKind.COMBINED, tier(CallKind.COMBINED, model, maxTokens + 200, temperature, 30000L));
+        tiers.put(CallKind.SENTIMENT, tier(CallKind.SENTIMENT, smallModel, 50, 0.3, 5000L));
+        tiers.put(CallKind.SUGGESTIONS, tier(CallKind.SUGGESTIONS, smallModel, 150, 0.8, 8000L));
+        tiers.put(CallKind.SUMMARY, tier(CallKind.SUMMARY, smallModel, summaryMaxTokens, 0.2, 20000L));
+    }
+
+    public Tier get(CallKind kind) {
+        return tiers.get(kind);
+    }
+
+    /**
+     * Nova requisição já com modelo, max tokens e temperatura do tipo
+     */
+    public ClaudeDTO.MessageRequest newRequest(CallKind kind) {
+        Tier tier = tiers.get(kind);
+        ClaudeDTO.MessageRequest request = new ClaudeDTO.MessageRequest();
+        request.model = tier.model;
+        request.maxTokens = tier.maxTokens;
+        request.temperature = tier.temperature;
+        return request;
+    }
+
+    public Duration timeout(CallKind kind) {
+        return tiers.get(kind).timeout;
+    }
+
+    private Tier tier(CallKind kind, String defaultModel, int defaultMaxTokens, double defaultTemperature,
+                      long defaultTimeoutMs) {
+        String prefix = PREFIX + kind.tag() + ".";
+        if (kind.isInteractive()) {
+            // Caminho da resposta principal: só o timeout é configurável por tipo
+            return new Tier(defaultModel, defaultMaxTokens, defaultTemperature, Duration.ofMillis(
+                    config.getOptionalValue(prefix + "timeout-ms", Long.class).orElse(defaultTimeoutMs)));
+        }
+        return new Tier(
+                config.getOptionalValue(prefix + "model", String.class).orElse(defaultModel),
+                config.getOptionalValue(prefix + "max-tokens", Integer.class).orElse(defaultMaxTokens),
+                config.getOptionalValue(prefix + "temperature", Double.class).orElse(defaultTemperature),
+                Duration.ofMillis(config.getOptionalValue(prefix + "timeout-ms", Long.class).orElse(defaultTimeoutMs)));
+    }
+
+    /**
+     * Configuração efetiva de um tipo de chamada
+     */
+    public static final class Tier {
+        public final String model;
+        public final int maxTokens;
+        public final double temperature;
+        public final Duration timeout;
+
+        Tier(String model, int maxTokens, double temperature, Duration timeout) {
+            this.model = model;
+            this.maxTokens = maxTokens;
+            this.temperature = temperature;
+            this.timeout = timeout;
+        }
+    }
+}
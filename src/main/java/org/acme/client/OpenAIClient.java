@@ -0,0 +1,26 @@
+package org.acme.client;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.acme.dto.OpenAIDTO;
+import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+
+/**
+ * API de chat completions compatível com OpenAI (OpenAI, Azure/OpenRouter, vLLM, stubs locais)
+ */
+@RegisterRestClient(configKey = "openai")
+public interface OpenAIClient {
+
+    @POST
+    @Path("/chat/completions")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ClientHeaderParam(name = "Authorization", value = "Bearer ${llm.openai.api-key}")
+    Uni<RestResponse<OpenAIDTO.ChatCompletionResponse>> createChatCompletion(OpenAIDTO.ChatCompletionRequest request);
+}
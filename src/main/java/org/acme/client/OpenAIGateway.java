@@ -0,0 +1,216 @@
+package org.acme.client;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.dto.ClaudeDTO;
+import org.acme.dto.OpenAIDTO;
+import org.acme.metrics.ClaudeMetrics;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provedor OpenAI-compatível: traduz a requisição da Messages API para chat completions
+ * e a resposta de volta, usando o modelo configurado em llm.openai.model. Como o Claude,
+ * passa por circuit breaker e limitador de concorrência próprios (chave "openai"), para
+ * que um incidente no fallback não receba a carga inteira durante uma falha do primário.
+ * O ritmo de rate limit não se aplica: o RateLimitPacer lê os headers anthropic-ratelimit-*;
+ * aqui um 429 reduz o limite de concorrência e é repetido conforme o retry-after.
+ */
+@ApplicationScoped
+public class OpenAIGateway implements LlmProvider {
+
+    private static final Logger LOG = Logger.getLogger(OpenAIGateway.class);
+
+    private static final String PROVIDER = "openai";
+
+    @Inject
+    @RestClient
+    OpenAIClient openAIClient;
+
+    @Inject
+    ClaudeMetrics metrics;
+
+    @Inject
+    ClaudeRetryPolicy retryPolicy;
+
+    @Inject
+    ClaudeCircuitBreaker circuitBreaker;
+
+    @Inject
+    AdaptiveConcurrencyLimiter limiter;
+
+    @Inject
+    ModelTiers modelTiers;
+
+    @ConfigProperty(name = "llm.openai.enabled", defaultValue = "false")
+    Boolean enabled;
+
+    @ConfigProperty(name = "llm.openai.model", defaultValue = "gpt-4o-mini")
+    String model;
+
+    @Override
+    public String name() {
+        return PROVIDER;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Uni<ClaudeDTO.MessageResponse> createMessage(CallKind kind, ClaudeDTO.MessageRequest request) {
+        String prefill = assistantPrefill(request);
+        OpenAIDTO.ChatCompletionRequest completion = toCompletion(request, prefill);
+        return withRetry(kind, completion, 0, System.nanoTime())
+                .map(response -> toMessageResponse(response, prefill));
+    }
+
+    private Uni<OpenAIDTO.ChatCompletionResponse> withRetry(CallKind kind, OpenAIDTO.ChatCompletionRequest request,
+                                                            int attempt, long start) {
+        return attempt(kind, request).onFailure().recoverWithUni(e -> {
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            Duration delay = retryPolicy.nextDelay(attempt, e, elapsedMillis);
+            if (delay == null) {
+                return Uni.createFrom().failure(e);
+            }
+            int status = ClaudeRetryPolicy.responseOf(e).getStatus();
+            metrics.recordRetry(kind, status);
+            LOG.warnf("Chamada %s (openai) falhou com status %d; tentativa %d em %d ms",
+                    kind.tag(), status, attempt + 2, delay.toMillis());
+            return Uni.createFrom().voidItem()
+                    .onItem().delayIt().by(delay)
+                    .chain(() -> withRetry(kind, request, attempt + 1, start));
+        });
+    }
+
+    private Uni<OpenAIDTO.ChatCompletionResponse> attempt(CallKind kind, OpenAIDTO.ChatCompletionRequest request) {
+        return Uni.createFrom().deferred(() -> {
+            circuitBreaker.acquire(PROVIDER, kind);
+            return Uni.createFrom().completionStage(limiter.acquireAsync(PROVIDER, kind))
+                    .chain(() -> call(kind, request))
+                    .onItem().invoke(() -> circuitBreaker.onSuccess(PROVIDER, kind))
+                    .onFailure().invoke(e -> circuitBreaker.onFailure(PROVIDER, kind, e))
+                    .onCancellation().invoke(() -> circuitBreaker.onAbandon(PROVIDER, kind));
+        });
+    }
+
+    /**
+     * Uma tentativa já com permissão do limitador, que é devolvida ao terminar; o timeout
+     * por tipo conta como falha no circuito e como sobrecarga, como no ClaudeGateway
+     */
+    private Uni<OpenAIDTO.ChatCompletionResponse> call(CallKind kind, OpenAIDTO.ChatCompletionRequest request) {
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return openAIClient.createChatCompletion(request)
+                    .ifNoItem().after(modelTiers.timeout(kind)).fail()
+                    .map(response -> {
+                        OpenAIDTO.ChatCompletionResponse body = response.getEntity();
+                        metrics.recordCall(kind, request.model, System.nanoTime() - start, "success");
+                        metrics.recordUsage(kind, request.model, toUsage(body.usage));
+                        return body;
+                    })
+                    .onFailure().invoke(e -> {
+                        metrics.recordCall(kind, request.model, System.nanoTime() - start, "error");
+                        metrics.recordError(kind, e);
+                    })
+                    .onTermination().invoke((body, failure, cancelled) -> limiter.release(PROVIDER, kind,
+                            System.nanoTime() - start, failure != null && ClaudeGateway.isOverload(failure)));
+        });
+    }
+
+    /**
+     * Chat completions não continua uma mensagem do assistant: o prefill (ex.: "{" do modo
+     * combinado) é removido da requisição e tirado do início da resposta, para que o chamador
+     * possa recolocá-lo como faz com o Claude
+     */
+    private static String assistantPrefill(ClaudeDTO.MessageRequest request) {
+        if (request.messages == null || request.messages.isEmpty()) {
+            return null;
+        }
+        ClaudeDTO.Message last = request.messages.get(request.messages.size() - 1);
+        return "assistant".equals(last.role) ? text(last.content) : null;
+    }
+
+    private OpenAIDTO.ChatCompletionRequest toCompletion(ClaudeDTO.MessageRequest request, String prefill) {
+        OpenAIDTO.ChatCompletionRequest completion = new OpenAIDTO.ChatCompletionRequest();
+        completion.model = model;
+        completion.maxTokens = request.maxTokens;
+        completion.temperature = request.temperature;
+        completion.topP = request.topP;
+
+        List<OpenAIDTO.Message> messages = new ArrayList<>();
+        String system = text(request.system);
+        if (!system.isEmpty()) {
+            messages.add(new OpenAIDTO.Message("system", system));
+        }
+        int count = request.messages.size() - (prefill != null ? 1 : 0);
+        for (int i = 0; i < count; i++) {
+            ClaudeDTO.Message message = request.messages.get(i);
+            messages.add(new OpenAIDTO.Message(message.role, text(message.content)));
+        }
+        completion.messages = messages;
+        return completion;
+    }
+
+    private static ClaudeDTO.MessageResponse toMessageResponse(OpenAIDTO.ChatCompletionResponse completion, String prefill) {
+        ClaudeDTO.MessageResponse response = new ClaudeDTO.MessageResponse();
+        response.id = completion.id;
+        response.type = "message";
+        response.role = "assistant";
+        response.model = completion.model;
+        response.usage = toUsage(completion.usage);
+
+        OpenAIDTO.Choice choice = completion.choices != null && !completion.choices.isEmpty()
+                ? completion.choices.get(0) : null;
+        if (choice == null || choice.message == null || choice.message.content == null) {
+            response.content = List.of();
+            return response;
+        }
+
+        String content = choice.message.content;
+        if (prefill != null && content.stripLeading().startsWith(prefill)) {
+            content = content.stripLeading().substring(prefill.length());
+        }
+        response.content = List.of(new ClaudeDTO.ContentBlock(content));
+        response.stopReason = "length".equals(choice.finishReason) ? "max_tokens" : "end_turn";
+        return response;
+    }
+
+    private static ClaudeDTO.Usage toUsage(OpenAIDTO.Usage usage) {
+        ClaudeDTO.Usage converted = new ClaudeDTO.Usage();
+        converted.inputTokens = usage != null ? usage.promptTokens : 0;
+        converted.outputTokens = usage != null ? usage.completionTokens : 0;
+        return converted;
+    }
+
+    /**
+     * Texto de um system/content da Messages API, que pode ser String ou lista de blocos
+     */
+    private static String text(Object content) {
+        if (content == null) {
+            return "";
+        }
+        if (content instanceof String text) {
+            return text;
+        }
+        StringBuilder text = new StringBuilder();
+        if (content instanceof List<?> blocks) {
+            for (Object block : blocks) {
+                if (block instanceof ClaudeDTO.ContentBlock contentBlock && contentBlock.text != null) {
+                    if (!text.isEmpty()) {
+                        text.append("\n\n");
+                    }
+                    text.append(contentBlock.text);
+                }
+            }
+        }
+        return text.toString();
+    }
+}
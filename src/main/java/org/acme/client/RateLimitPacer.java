@@ -0,0 +1,207 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Ritmo compartilhado das chamadas ao Claude. Guarda o orçamento informado pelos headers
+ * anthropic-ratelimit-* e o retry-after do último 429; com o saldo abaixo do limiar, cada
+ * chamada reserva a próxima vaga livre, uma por intervalo (o tempo até o reset dividido
+ * pelo saldo restante), para que chamadores simultâneos saiam espaçados em vez de juntos.
+ * Depois de um 429 as vagas começam no fim do retry-after.
+ */
+@ApplicationScoped
+public class RateLimitPacer {
+
+    private static final Logger LOG = Logger.getLogger(RateLimitPacer.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "claude.pacing.enabled", defaultValue = "true")
+    Boolean enabled;
+
+    // Fração restante do orçamento abaixo da qual as chamadas começam a ser espaçadas
+    @ConfigProperty(name = "claude.pacing.threshold", defaultValue = "0.1")
+    Double threshold;
+
+    // Chamadas em background desaceleram antes, deixando folga para o chat
+    @ConfigProperty(name = "claude.pacing.background-threshold", defaultValue = "0.25")
+    Double backgroundThreshold;
+
+    @ConfigProperty(name = "claude.pacing.max-delay-ms", defaultValue = "5000")
+    Long maxDelayMs;
+
+    // Espaço mínimo entre as chamadas liberadas no fim de um retry-after
+    @ConfigProperty(name = "claude.pacing.retry-spacing-ms", defaultValue = "100")
+    Long retrySpacingMs;
+
+    private final Budget requests = new Budget();
+    private final Budget tokens = new Budget();
+    private long blockedUntilMillis;
+    // Próxima vaga livre; cada reserva espaçada a avança em um intervalo
+    private long nextSlotMillis;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("claude.ratelimit.remaining", requests, b -> b.remaining).tag("type", "requests").register(registry);
+        Gauge.builder("claude.ratelimit.remaining", tokens, b -> b.remaining).tag("type", "tokens").register(registry);
+    }
+
+    /**
+     * Reserva a vez da chamada e devolve quanto ela deve esperar; o chamador agenda
+     * o atraso em vez de bloquear a thread
+     *
+     * @param estimatedTokens tokens de entrada estimados, descontados do saldo de tokens
+     */
+    public long reserve(CallKind kind, int estimatedTokens) {
+        if (!enabled) {
+            return 0;
+        }
+        long delayMillis = nextDelayMillis(kind, estimatedTokens);
+        if (delayMillis > 0) {
+            Timer.builder("claude.pacing.delay")
+                    .description("Espera imposta pelo ritmo de rate limit antes das chamadas")
+                    .tag("kind", kind.tag())
+                    .register(registry)
+                    .record(delayMillis, TimeUnit.MILLISECONDS);
+            LOG.debugf("Chamada %s espaçada em %d ms pelo rate limit", kind.tag(), delayMillis);
+        }
+        return delayMillis;
+    }
+
+    /**
+     * Atualiza o orçamento com os headers de uma resposta (sucesso ou erro)
+     */
+    public void update(int status, Function<String, String> headers) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            requests.update(headers, "anthropic-ratelimit-requests-");
+            if (!tokens.update(headers, "anthropic-ratelimit-tokens-")) {
+                tokens.update(headers, "anthropic-ratelimit-input-tokens-");
+            }
+            if (status == 429) {
+                Duration retryAfter = retryAfter(headers);
+                if (retryAfter != null) {
+                    blockedUntilMillis = Math.max(blockedUntilMillis, now + retryAfter.toMillis());
+                }
+            }
+        }
+    }
+
+    private synchronized long nextDelayMillis(CallKind kind, int estimatedTokens) {
+        long now = System.currentTimeMillis();
+        double fraction = kind.isInteractive() ? threshold : backgroundThreshold;
+        long interval = Math.max(requests.interval(now, fraction, 1),
+                tokens.interval(now, fraction, estimatedTokens));
+        // Conta a chamada liberada para que chamadores simultâneos não vejam o mesmo saldo
+        requests.consume(1);
+        tokens.consume(estimatedTokens);
+
+        boolean blocked = blockedUntilMillis > now;
+        if (interval == 0 && !blocked) {
+            return 0;
+        }
+        if (blocked) {
+            interval = Math.max(interval, retrySpacingMs);
+        }
+        // A espera é limitada a maxDelayMs; além disso as vagas se acumulam no limite
+        long slot = Math.min(Math.max(now, Math.max(nextSlotMillis, blockedUntilMillis)), now + maxDelayMs);
+        nextSlotMillis = slot + interval;
+        return slot - now;
+    }
+
+    /**
+     * Valor do header retry-after (segundos ou data HTTP) ou null se ausente/inválido
+     */
+    public static Duration retryAfter(Function<String, String> headers) {
+        String value = headers.apply("retry-after");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis((long) (Double.parseDouble(value.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            try {
+                Instant at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                Duration until = Duration.between(Instant.now(), at);
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Saldo de uma janela de rate limit (requisições ou tokens)
+     */
+    private static final class Budget {
+        long limit = -1;
+        long remaining = -1;
+        long resetAtMillis;
+
+        boolean update(Function<String, String> headers, String prefix) {
+            long newLimit = parseLong(headers.apply(prefix + "limit"));
+            long newRemaining = parseLong(headers.apply(prefix + "remaining"));
+            if (newRemaining < 0) {
+                return false;
+            }
+            limit = newLimit;
+            remaining = newRemaining;
+            String reset = headers.apply(prefix + "reset");
+            if (reset != null) {
+                try {
+                    resetAtMillis = OffsetDateTime.parse(reset.trim()).toInstant().toEpochMilli();
+                } catch (Exception e) {
+                    resetAtMillis = 0;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Intervalo entre chamadas que distribui o saldo restante até o reset, quando ele
+         * está abaixo da fração; {@code cost} é o quanto cada chamada consome do saldo
+         */
+        long interval(long now, double fraction, long cost) {
+            if (limit <= 0 || remaining < 0 || resetAtMillis <= now || cost <= 0) {
+                return 0;
+            }
+            if (remaining > limit * fraction) {
+                return 0;
+            }
+            return (resetAtMillis - now) * cost / (remaining + cost);
+        }
+
+        void consume(long cost) {
+            if (remaining > 0) {
+                remaining = Math.max(0, remaining - cost);
+            }
+        }
+
+        private static long parseLong(String value) {
+            if (value == null) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
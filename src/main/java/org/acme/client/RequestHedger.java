@@ -0,0 +1,292 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.dto.ClaudeDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Hedging de requisições para cortar a cauda de latência das respostas do chat.
+ * Se a chamada não responde dentro do percentil configurado da latência recente, uma
+ * duplicata vai para o mesmo provedor ou para o alternativo (opcionalmente com outro
+ * modelo); a primeira resposta bem-sucedida vence e a outra é cancelada. Um orçamento
+ * em balde de fichas limita as duplicatas a claude.hedge.budget-ratio das chamadas.
+ */
+@ApplicationScoped
+public class RequestHedger {
+
+    private static final Logger LOG = Logger.getLogger(RequestHedger.class);
+
+    // Fichas acumuladas no máximo: permite rajadas curtas sem estourar o orçamento médio
+    private static final double MAX_BUDGET = 10.0;
+
+    // Recalcula o percentil a cada N amostras em vez de a cada chamada
+    private static final int RECOMPUTE_EVERY = 16;
+
+    @Inject
+    LlmRouter router;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "claude.hedge.enabled", defaultValue = "false")
+    Boolean enabled;
+
+    @ConfigProperty(name = "claude.hedge.percentile", defaultValue = "0.95")
+    Double percentile;
+
+    @ConfigProperty(name = "claude.hedge.min-delay-ms", defaultValue = "500")
+    Long minDelayMs;
+
+    @ConfigProperty(name = "claude.hedge.min-samples", defaultValue = "20")
+    Integer minSamples;
+
+    @ConfigProperty(name = "claude.hedge.window-size", defaultValue = "256")
+    Integer windowSize;
+
+    @ConfigProperty(name = "claude.hedge.budget-ratio", defaultValue = "0.05")
+    Double budgetRatio;
+
+    // same: duplica no mesmo provedor; alternate: no próximo provedor do roteador
+    @ConfigProperty(name = "claude.hedge.target", defaultValue = "same")
+    String target;
+
+    // Modelo da duplicata (ex.: um modelo mais rápido); vazio mantém o da requisição
+    @ConfigProperty(name = "claude.hedge.model")
+    Optional<String> hedgeModel;
+
+    private long[] window;
+    private int next;
+    private int size;
+    private long recorded;
+    private volatile long delayMs = -1;
+    private double budget;
+
+    @PostConstruct
+    void init() {
+        window = new long[windowSize];
+        Gauge.builder("claude.hedge.delay", this, h -> h.delayMs)
+                .description("Espera atual antes de disparar a duplicata (ms, -1 sem amostras)")
+                .register(registry);
+    }
+
+    public Uni<ClaudeDTO.MessageResponse> createMessage(CallKind kind, ClaudeDTO.MessageRequest request) {
+        if (!enabled) {
+            return router.createMessageAsync(kind, request);
+        }
+
+        deposit();
+        count("claude.hedge.eligible", kind, null);
+        Uni<ClaudeDTO.MessageResponse> primary = timed(router.createMessageAsync(kind, request));
+        long delay = delayMs;
+        if (delay < 0) {
+            return primary;
+        }
+        return Uni.createFrom().emitter(emitter -> race(kind, request, primary, delay, emitter));
+    }
+
+    private void race(CallKind kind, ClaudeDTO.MessageRequest request, Uni<ClaudeDTO.MessageResponse> primary,
+                      long delay, UniEmitter<? super ClaudeDTO.MessageResponse> emitter) {
+        Race race = new Race(kind, emitter);
+        race.primary = primary.subscribe().with(
+                item -> race.succeed(item, false),
+                failure -> race.fail(failure, false));
+
+        race.timer = Uni.createFrom().voidItem()
+                .onItem().delayIt().by(Duration.ofMillis(delay))
+                .subscribe().with(ignored -> {
+                    if (!race.startHedge()) {
+                        return;
+                    }
+                    count("claude.hedge.launched", kind, null);
+                    LOG.debugf("Chamada %s sem resposta em %d ms, disparando duplicata", kind.tag(), delay);
+                    race.hedge = timed(hedgeCall(kind, request)).subscribe().with(
+                            item -> race.succeed(item, true),
+                            failure -> race.fail(failure, true));
+                    // A corrida pode ter terminado enquanto a duplicata era disparada
+                    race.cancelLosers();
+                });
+
+        emitter.onTermination(race::terminate);
+    }
+
+    private Uni<ClaudeDTO.MessageResponse> hedgeCall(CallKind kind, ClaudeDTO.MessageRequest request) {
+        ClaudeDTO.MessageRequest copy = request;
+        if (hedgeModel.isPresent() && !hedgeModel.get().isBlank()) {
+            copy = new ClaudeDTO.MessageRequest();
+            copy.model = hedgeModel.get();
+            copy.maxTokens = request.maxTokens;
+            copy.temperature = request.temperature;
+            copy.system = request.system;
+            copy.messages = request.messages;
+            copy.topP = request.topP;
+            copy.stopSequences = request.stopSequences;
+            copy.stream = request.stream;
+        }
+        return "alternate".equalsIgnoreCase(target)
+                ? router.createMessageOnAlternate(kind, copy)
+                : router.createMessageAsync(kind, copy);
+    }
+
+    private Uni<ClaudeDTO.MessageResponse> timed(Uni<ClaudeDTO.MessageResponse> call) {
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return call.onItem().invoke(() -> record(System.nanoTime() - start));
+        });
+    }
+
+    private synchronized void record(long latencyNanos) {
+        window[next] = latencyNanos / 1_000_000L;
+        next = (next + 1) % window.length;
+        size = Math.min(size + 1, window.length);
+        recorded++;
+        if (size >= minSamples && (delayMs < 0 || recorded % RECOMPUTE_EVERY == 0)) {
+            long[] sorted = Arrays.copyOf(window, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(size - 1, Math.ceil(percentile * size) - 1);
+            delayMs = Math.max(minDelayMs, sorted[Math.max(index, 0)]);
+        }
+    }
+
+    private synchronized void deposit() {
+        budget = Math.min(MAX_BUDGET, budget + budgetRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget < 1.0) {
+            return false;
+        }
+        budget -= 1.0;
+        return true;
+    }
+
+    private void count(String name, CallKind kind, String winner) {
+        Counter.Builder builder = Counter.builder(name).tag("kind", kind.tag());
+        if (winner != null) {
+            builder.tag("winner", winner);
+        }
+        builder.register(registry).increment();
+    }
+
+    /**
+     * Estado de uma corrida entre a chamada original e a duplicata
+     */
+    private final class Race {
+        final CallKind kind;
+        final UniEmitter<? super ClaudeDTO.MessageResponse> emitter;
+
+        volatile Cancellable primary;
+        volatile Cancellable hedge;
+        volatile Cancellable timer;
+
+        private boolean done;
+        private boolean hedgeStarted;
+        private boolean primaryFailed;
+        private boolean hedgeFailed;
+        private Throwable primaryError;
+
+        Race(CallKind kind, UniEmitter<? super ClaudeDTO.MessageResponse> emitter) {
+            this.kind = kind;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Reserva a ficha e marca a duplicata como disparada sob o mesmo lock de {@link #fail}:
+         * uma falha da original nunca vê uma duplicata que acabou não saindo
+         */
+        synchronized boolean startHedge() {
+            if (done || primaryFailed) {
+                return false;
+            }
+            if (!withdraw()) {
+                count("claude.hedge.skipped", kind, null);
+                return false;
+            }
+            hedgeStarted = true;
+            return true;
+        }
+
+        void succeed(ClaudeDTO.MessageResponse item, boolean fromHedge) {
+            boolean hedged;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                hedged = hedgeStarted;
+            }
+            if (hedged) {
+                count("claude.hedge.wins", kind, fromHedge ? "hedge" : "primary");
+            }
+            cancelLosers();
+            emitter.complete(item);
+        }
+
+        void fail(Throwable failure, boolean fromHedge) {
+            Throwable error;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (fromHedge) {
+                    hedgeFailed = true;
+                } else {
+                    primaryFailed = true;
+                    primaryError = failure;
+                }
+                // Só falha quando não há mais quem possa responder
+                boolean hedgePending = hedgeStarted && !hedgeFailed;
+                boolean primaryPending = !primaryFailed;
+                if (hedgePending || primaryPending) {
+                    return;
+                }
+                done = true;
+                error = primaryError != null ? primaryError : failure;
+            }
+            cancelLosers();
+            emitter.fail(error);
+        }
+
+        /**
+         * Chamado quando o assinante recebe o resultado ou cancela: nada mais é emitido
+         */
+        void terminate() {
+            synchronized (this) {
+                done = true;
+            }
+            cancelLosers();
+        }
+
+        /**
+         * Cancela o que ainda estiver em andamento depois que a corrida terminou
+         */
+        void cancelLosers() {
+            synchronized (this) {
+                if (!done) {
+                    return;
+                }
+            }
+            cancel(timer);
+            cancel(primary);
+            cancel(hedge);
+        }
+
+        private void cancel(Cancellable cancellable) {
+            if (cancellable != null) {
+                cancellable.cancel();
+            }
+        }
+    }
+}
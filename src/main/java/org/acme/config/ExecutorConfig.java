@@ -0,0 +1,83 @@
+package org.acme.config;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.model.RouteDefinition;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@ApplicationScoped
+public class ExecutorConfig {
+
+    // worker: pool de workers do Quarkus (limitado por quarkus.thread-pool.max-threads)
+    // virtual: uma virtual thread por tarefa bloqueante (banco, chamadas síncronas ao Claude)
+    @ConfigProperty(name = "chat.execution.mode", defaultValue = "worker")
+    String executionMode;
+
+    private ExecutorService virtualExecutor;
+
+    public boolean isVirtual() {
+        return "virtual".equalsIgnoreCase(executionMode);
+    }
+
+    /**
+     * Onde roda o trabalho bloqueante dos fluxos assíncronos (leitura de histórico, persistência)
+     */
+    @Produces
+    @Singleton
+    @Named("blockingExecutor")
+    public Executor blockingExecutor() {
+        return isVirtual() ? virtualExecutor() : Infrastructure.getDefaultWorkerPool();
+    }
+
+    /**
+     * No modo virtual, o restante da rota roda numa virtual thread em vez de ocupar
+     * a thread do consumer platform-http; no modo worker a rota fica como está
+     */
+    public ProcessorDefinition<?> blocking(RouteDefinition route) {
+        return isVirtual() ? route.threads().executorService(virtualExecutor()) : route;
+    }
+
+    private synchronized ExecutorService virtualExecutor() {
+        if (virtualExecutor == null) {
+            ThreadFactory virtual = Thread.ofVirtual().name("chat-vt-", 0).factory();
+            virtualExecutor = Executors.newThreadPerTaskExecutor(task -> virtual.newThread(() -> withRequestContext(task)));
+        }
+        return virtualExecutor;
+    }
+
+    /**
+     * Panache fora de transação precisa de um request context ativo, como nas threads de worker
+     */
+    private static void withRequestContext(Runnable task) {
+        ManagedContext requestContext = Arc.container().requestContext();
+        if (requestContext.isActive()) {
+            task.run();
+            return;
+        }
+        requestContext.activate();
+        try {
+            task.run();
+        } finally {
+            requestContext.terminate();
+        }
+    }
+
+    @PreDestroy
+    void shutdownVirtualExecutor() {
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdown();
+        }
+    }
+}
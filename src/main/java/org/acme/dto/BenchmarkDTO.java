@@ -0,0 +1,52 @@
+package org.acme.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class BenchmarkDTO {
+
+    /**
+     * Resultado do benchmark de modelos para as tarefas auxiliares
+     */
+    public static class TierBenchmarkResponse {
+        @JsonProperty("repetitions")
+        public Integer repetitions;
+
+        @JsonProperty("results")
+        public List<TierResult> results;
+    }
+
+    /**
+     * Qualidade e latência de um modelo em uma tarefa
+     */
+    public static class TierResult {
+        @JsonProperty("model")
+        public String model;
+
+        @JsonProperty("task")
+        public String task; // sentiment, suggestions
+
+        @JsonProperty("calls")
+        public Integer calls;
+
+        @JsonProperty("errors")
+        public Integer errors;
+
+        // sentiment: acertos sobre o rótulo esperado; suggestions: respostas no formato pedido
+        @JsonProperty("quality")
+        public Double quality;
+
+        @JsonProperty("latency_p50_ms")
+        public Long latencyP50Ms;
+
+        @JsonProperty("latency_p95_ms")
+        public Long latencyP95Ms;
+
+        @JsonProperty("latency_avg_ms")
+        public Long latencyAvgMs;
+
+        @JsonProperty("avg_output_tokens")
+        public Double avgOutputTokens;
+    }
+}
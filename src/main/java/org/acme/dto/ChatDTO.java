@@ -19,6 +19,9 @@ public class ChatDTO {
         @JsonProperty("session_id")
         public String sessionId;
 
+        @JsonProperty("message_id")
+        public Long messageId;
+
         @JsonProperty("message")
         public String message;
 
@@ -35,6 +38,40 @@ public class ChatDTO {
         public String timestamp;
     }
 
+    public static class EnrichmentResponse {
+        @JsonProperty("message_id")
+        public Long messageId;
+
+        @JsonProperty("status")
+        public String status; // pending, done, unavailable
+
+        @JsonProperty("sentiment")
+        public String sentiment;
+
+        @JsonProperty("suggestions")
+        public String[] suggestions;
+    }
+
+    public static class EnrichmentStats {
+        @JsonProperty("queue_size")
+        public Integer queueSize;
+
+        @JsonProperty("queue_capacity")
+        public Integer queueCapacity;
+
+        @JsonProperty("workers")
+        public Integer workers;
+
+        @JsonProperty("enqueued")
+        public Long enqueued;
+
+        @JsonProperty("processed")
+        public Long processed;
+
+        @JsonProperty("shed")
+        public Long shed;
+    }
+
     public static class TherapyInfo {
         @JsonProperty("type")
         public String type;
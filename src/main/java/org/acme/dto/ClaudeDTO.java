@@ -20,8 +20,9 @@ public class ClaudeDTO {
         @JsonProperty("temperature")
         public Double temperature;
 
+        // String simples ou lista de ContentBlock (necessária para cache_control)
         @JsonProperty("system")
-        public String system;
+        public Object system;
 
         @JsonProperty("messages")
         public List<Message> messages;
@@ -35,6 +36,9 @@ public class ClaudeDTO {
 
         @JsonProperty("stop_sequences")
         public List<String> stopSequences;
+
+        @JsonProperty("stream")
+        public Boolean stream;
     }
 
     /**
@@ -63,6 +67,7 @@ public class ClaudeDTO {
     /**
      * Bloco de conteúdo (texto, imagem, etc)
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class ContentBlock {
         @JsonProperty("type")
         public String type;
@@ -73,6 +78,9 @@ public class ClaudeDTO {
         @JsonProperty("source")
         public ImageSource source;
 
+        @JsonProperty("cache_control")
+        public CacheControl cacheControl;
+
         public ContentBlock() {}
 
         public ContentBlock(String text) {
@@ -81,6 +89,20 @@ public class ClaudeDTO {
         }
     }
 
+    /**
+     * Marca um bloco como ponto de cache do prompt (prompt caching)
+     */
+    public static class CacheControl {
+        @JsonProperty("type")
+        public String type;
+
+        public static CacheControl ephemeral() {
+            CacheControl cacheControl = new CacheControl();
+            cacheControl.type = "ephemeral";
+            return cacheControl;
+        }
+    }
+
     /**
      * Fonte de imagem (para multimodal)
      */
@@ -133,6 +155,75 @@ public class ClaudeDTO {
 
         @JsonProperty("output_tokens")
         public Integer outputTokens;
+
+        @JsonProperty("cache_creation_input_tokens")
+        public Integer cacheCreationInputTokens;
+
+        @JsonProperty("cache_read_input_tokens")
+        public Integer cacheReadInputTokens;
+    }
+
+    /**
+     * Saída estruturada do modo combinado (resposta + sentimento + sugestões em uma chamada)
+     */
+    public static class StructuredReply {
+        @JsonProperty("reply")
+        public String reply;
+
+        @JsonProperty("sentiment")
+        public String sentiment;
+
+        @JsonProperty("suggestions")
+        public List<String> suggestions;
+    }
+
+    /**
+     * Evento SSE recebido quando stream=true (message_start, content_block_delta, message_delta, ...)
+     */
+    public static class StreamEvent {
+        @JsonProperty("type")
+        public String type;
+
+        @JsonProperty("index")
+        public Integer index;
+
+        @JsonProperty("delta")
+        public Delta delta;
+
+        @JsonProperty("message")
+        public MessageResponse message;
+
+        @JsonProperty("usage")
+        public Usage usage;
+
+        // Só em eventos "error" (ex.: overloaded_error no meio do stream)
+        @JsonProperty("error")
+        public StreamError error;
+    }
+
+    /**
+     * Erro enviado como evento SSE depois que o stream já começou
+     */
+    public static class StreamError {
+        @JsonProperty("type")
+        public String type;
+
+        @JsonProperty("message")
+        public String message;
+    }
+
+    /**
+     * Incremento de conteúdo de um evento de streaming
+     */
+    public static class Delta {
+        @JsonProperty("type")
+        public String type;
+
+        @JsonProperty("text")
+        public String text;
+
+        @JsonProperty("stop_reason")
+        public String stopReason;
     }
 
     /**
@@ -0,0 +1,27 @@
+package org.acme.entity;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção com as estatísticas de check-in de um usuário, calculadas inteiramente no banco
+ */
+@RegisterForReflection
+public class CheckInStatsRow {
+
+    public final long totalCheckIns;
+    public final Double averageEnergy;
+    public final Double averageSleep;
+    public final LocalDate lastCheckIn;
+    public final int streak;
+
+    public CheckInStatsRow(long totalCheckIns, Double averageEnergy, Double averageSleep,
+                           LocalDate lastCheckIn, int streak) {
+        this.totalCheckIns = totalCheckIns;
+        this.averageEnergy = averageEnergy;
+        this.averageSleep = averageSleep;
+        this.lastCheckIn = lastCheckIn;
+        this.streak = streak;
+    }
+}
@@ -0,0 +1,36 @@
+package org.acme.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "conversation_summary")
+public class ConversationSummary extends PanacheEntity {
+
+    @Column(name = "session_id", nullable = false, unique = true)
+    public String sessionId;
+
+    @Column(name = "summary", columnDefinition = "TEXT")
+    public String summary;
+
+    // created_at do último turno incorporado ao resumo
+    @Column(name = "covered_until")
+    public LocalDateTime coveredUntil;
+
+    @Column(name = "turns_covered")
+    public Integer turnsCovered;
+
+    @Column(name = "updated_at")
+    public LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public static ConversationSummary findBySessionId(String sessionId) {
+        return find("sessionId", sessionId).firstResult();
+    }
+}
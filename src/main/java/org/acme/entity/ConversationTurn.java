@@ -0,0 +1,25 @@
+package org.acme.entity;
+
+import io.quarkus.hibernate.orm.panache.common.ProjectedFieldName;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de Message com apenas as colunas usadas para montar o prompt
+ */
+@RegisterForReflection
+public class ConversationTurn {
+
+    public final String userMessage;
+    public final String botResponse;
+    public final LocalDateTime createdAt;
+
+    public ConversationTurn(@ProjectedFieldName("userMessage") String userMessage,
+                            @ProjectedFieldName("botResponse") String botResponse,
+                            @ProjectedFieldName("createdAt") LocalDateTime createdAt) {
+        this.userMessage = userMessage;
+        this.botResponse = botResponse;
+        this.createdAt = createdAt;
+    }
+}
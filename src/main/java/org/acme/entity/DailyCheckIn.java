@@ -2,12 +2,15 @@ package org.acme.entity;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.query.NativeQuery;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "daily_checkin")
+@Table(name = "daily_checkin", indexes = {
+        @Index(name = "idx_daily_checkin_user_date", columnList = "user_id, checkin_date")
+})
 public class DailyCheckIn extends PanacheEntityBase {
 
     @Id
@@ -68,6 +71,50 @@ public class DailyCheckIn extends PanacheEntityBase {
                 userId, startDate, endDate).list();
     }
 
+    /**
+     * Contagem, médias, último check-in e sequência atual em uma única consulta, sem carregar
+     * as entidades. A sequência usa gaps-and-islands: em dias consecutivos, data menos
+     * row_number é constante, então cada ilha de dias seguidos tem a mesma chave; a sequência
+     * atual é o tamanho da ilha que contém hoje (0 se não houve check-in hoje).
+     * Check-ins com data futura ficam de fora, como na consulta por período (até hoje).
+     * Com startDate nulo considera todo o histórico até hoje.
+     */
+    public static CheckInStatsRow findStats(String userId, LocalDate startDate) {
+        String period = startDate != null ? " AND checkin_date >= :startDate" : "";
+        String sql = "WITH filtered AS ("
+                + " SELECT checkin_date, energy_level, sleep_quality FROM daily_checkin"
+                + " WHERE user_id = :userId AND checkin_date <= :today" + period
+                + "), islands AS ("
+                + " SELECT checkin_date,"
+                + " checkin_date - CAST(ROW_NUMBER() OVER (ORDER BY checkin_date) AS integer) AS island"
+                + " FROM (SELECT DISTINCT checkin_date FROM filtered) days"
+                + ")"
+                + " SELECT COUNT(*) AS total,"
+                + " AVG(energy_level) AS avg_energy,"
+                + " AVG(sleep_quality) AS avg_sleep,"
+                + " MAX(checkin_date) AS last_checkin,"
+                + " (SELECT COUNT(*) FROM islands"
+                + "   WHERE island = (SELECT island FROM islands WHERE checkin_date = :today)) AS streak"
+                + " FROM filtered";
+
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = getEntityManager().createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("total", Long.class)
+                .addScalar("avg_energy", Double.class)
+                .addScalar("avg_sleep", Double.class)
+                .addScalar("last_checkin", LocalDate.class)
+                .addScalar("streak", Integer.class)
+                .setParameter("userId", userId)
+                .setParameter("today", LocalDate.now());
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+
+        Object[] row = query.getSingleResult();
+        return new CheckInStatsRow((Long) row[0], (Double) row[1], (Double) row[2],
+                (LocalDate) row[3], (Integer) row[4]);
+    }
+
     public static boolean hasCheckInToday(String userId) {
         return findByUserIdAndDate(userId, LocalDate.now()) != null;
     }
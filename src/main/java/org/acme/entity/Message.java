@@ -1,12 +1,18 @@
 package org.acme.entity;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_session_created", columnList = "session_id, created_at")
+})
 public class Message extends PanacheEntity {
 
     @Column(name = "session_id", nullable = false)
@@ -24,6 +30,13 @@ public class Message extends PanacheEntity {
     @Column(name = "sentiment")
     public String sentiment;
 
+    // Sugestões separadas por quebra de linha (preenchidas pelo enriquecimento assíncrono)
+    @Column(name = "suggestions", columnDefinition = "TEXT")
+    public String suggestions;
+
+    @Column(name = "enriched_at")
+    public LocalDateTime enrichedAt;
+
     @Column(name = "created_at")
     public LocalDateTime createdAt;
 
@@ -34,7 +47,46 @@ public class Message extends PanacheEntity {
         }
     }
 
-    public static List<Message> findBySessionId(String sessionId) {
-        return list("sessionId", sessionId);
+    /**
+     * Últimos N turnos da sessão em ordem cronológica, só com as colunas do prompt
+     */
+    public static List<ConversationTurn> findRecentTurns(String sessionId, int turns) {
+        List<ConversationTurn> recent = latest(sessionId)
+                .project(ConversationTurn.class)
+                .page(0, turns)
+                .list();
+        List<ConversationTurn> ordered = new ArrayList<>(recent);
+        Collections.reverse(ordered);
+        return ordered;
+    }
+
+    /**
+     * Página do histórico contada a partir das mensagens mais recentes (página 0),
+     * com os itens de cada página em ordem cronológica
+     */
+    public static List<Message> findHistoryPage(String sessionId, int page, int size) {
+        List<Message> messages = new ArrayList<>(latest(sessionId).page(page, size).list());
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Turnos da sessão posteriores a {@code after} (ou todos, se null), em ordem cronológica
+     */
+    public static List<ConversationTurn> findTurnsAfter(String sessionId, LocalDateTime after) {
+        Sort sort = Sort.ascending("createdAt", "id");
+        PanacheQuery<Message> query = after == null
+                ? find("sessionId", sort, sessionId)
+                : find("sessionId = ?1 and createdAt > ?2", sort, sessionId, after);
+        return query.project(ConversationTurn.class).list();
+    }
+
+    public static long countBySessionId(String sessionId) {
+        return count("sessionId", sessionId);
+    }
+
+    // Usa o índice (session_id, created_at)
+    private static PanacheQuery<Message> latest(String sessionId) {
+        return find("sessionId", Sort.descending("createdAt", "id"), sessionId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package org.acme.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.acme.cache.ConversationWindowCache;
+import org.acme.cache.FirstTurnResponseCache;
+import org.acme.cache.SuggestionsCache;
+import org.acme.cache.TtlLruCache;
+import org.acme.service.ConversationSummaryService;
+import org.acme.service.EnrichmentService;
+
+import java.util.function.Function;
+
+/**
+ * Publica no Micrometer os contadores que já existiam nos caches e na fila de enriquecimento
+ */
+@ApplicationScoped
+public class AppMetricsBinder {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ConversationWindowCache conversationWindowCache;
+
+    @Inject
+    SuggestionsCache suggestionsCache;
+
+    @Inject
+    FirstTurnResponseCache firstTurnResponseCache;
+
+    @Inject
+    ConversationSummaryService conversationSummaryService;
+
+    @Inject
+    EnrichmentService enrichmentService;
+
+    void onStart(@Observes StartupEvent event) {
+        bindCache("conversation-window", conversationWindowCache, ConversationWindowCache::stats);
+        bindCache("suggestions", suggestionsCache, SuggestionsCache::stats);
+        bindCache("first-turn-response", firstTurnResponseCache, FirstTurnResponseCache::stats);
+        bindCache("conversation-summary", conversationSummaryService, ConversationSummaryService::stats);
+
+        Gauge.builder("chat.enrichment.queue.size", enrichmentService, s -> s.getStats().queueSize)
+                .description("Mensagens aguardando enriquecimento")
+                .register(registry);
+        Gauge.builder("chat.enrichment.queue.capacity", enrichmentService, s -> s.getStats().queueCapacity)
+                .register(registry);
+        Gauge.builder("chat.enrichment.workers", enrichmentService, s -> s.getStats().workers)
+                .register(registry);
+        FunctionCounter.builder("chat.enrichment.tasks", enrichmentService, s -> s.getStats().enqueued)
+                .tag("result", "enqueued")
+                .register(registry);
+        FunctionCounter.builder("chat.enrichment.tasks", enrichmentService, s -> s.getStats().processed)
+                .tag("result", "processed")
+                .register(registry);
+        FunctionCounter.builder("chat.enrichment.tasks", enrichmentService, s -> s.getStats().shed)
+                .tag("result", "shed")
+                .register(registry);
+    }
+
+    // O Micrometer guarda referência fraca ao objeto medido: usamos o próprio bean, que vive com a aplicação
+    private <T> void bindCache(String name, T owner, Function<T, TtlLruCache.Stats> stats) {
+        Gauge.builder("chat.cache.size", owner, o -> stats.apply(o).size)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("chat.cache.weight", owner, o -> stats.apply(o).weight)
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("chat.cache.requests", owner, o -> stats.apply(o).hits)
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.requests", owner, o -> stats.apply(o).misses)
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("chat.cache.evictions", owner, o -> stats.apply(o).evictions)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,84 @@
+package org.acme.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.client.CallKind;
+import org.acme.dto.ClaudeDTO;
+
+import java.time.Duration;
+
+/**
+ * Métricas das chamadas ao Claude: latência por tipo de chamada e modelo, tokens,
+ * retentativas, fallbacks e erros. Expostas em /q/metrics (Prometheus).
+ */
+@ApplicationScoped
+public class ClaudeMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    public void recordCall(CallKind kind, String model, long durationNanos, String outcome) {
+        Timer.builder("claude.request")
+                .description("Latência das chamadas à API do Claude")
+                .tag("kind", kind.tag())
+                .tag("model", String.valueOf(model))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(50))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(registry)
+                .record(Duration.ofNanos(durationNanos));
+    }
+
+    public void recordUsage(CallKind kind, String model, ClaudeDTO.Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        tokens(kind, model, "input", usage.inputTokens);
+        tokens(kind, model, "output", usage.outputTokens);
+        tokens(kind, model, "cache_read", usage.cacheReadInputTokens);
+        tokens(kind, model, "cache_creation", usage.cacheCreationInputTokens);
+    }
+
+    public void recordError(CallKind kind, Throwable error) {
+        Counter.builder("claude.errors")
+                .description("Falhas nas chamadas à API do Claude")
+                .tag("kind", kind.tag())
+                .tag("type", error.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    public void recordRetry(CallKind kind, int status) {
+        Counter.builder("claude.retries")
+                .description("Retentativas de chamadas à API do Claude")
+                .tag("kind", kind.tag())
+                .tag("status", String.valueOf(status))
+                .register(registry)
+                .increment();
+    }
+
+    public void recordFallback(CallKind kind) {
+        Counter.builder("claude.fallbacks")
+                .description("Respostas servidas por fallback local")
+                .tag("kind", kind.tag())
+                .register(registry)
+                .increment();
+    }
+
+    private void tokens(CallKind kind, String model, String type, Integer count) {
+        if (count == null || count == 0) {
+            return;
+        }
+        Counter.builder("claude.tokens")
+                .description("Tokens consumidos na API do Claude")
+                .tag("kind", kind.tag())
+                .tag("model", String.valueOf(model))
+                .tag("type", type)
+                .register(registry)
+                .increment(count);
+    }
+}
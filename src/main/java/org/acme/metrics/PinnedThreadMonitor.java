@@ -0,0 +1,91 @@
+package org.acme.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.acme.config.ExecutorConfig;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+
+/**
+ * No modo virtual, acompanha pelo JFR os eventos jdk.VirtualThreadPinned: uma virtual thread
+ * que bloqueia dentro de synchronized (driver JDBC, Hibernate, bibliotecas antigas) prende a
+ * carrier thread e reduz a concorrência ao tamanho do pool de carriers. Cada ocorrência acima
+ * do limiar vai para o log com a pilha e para o contador chat.virtual_threads.pinned.
+ */
+@ApplicationScoped
+public class PinnedThreadMonitor {
+
+    private static final Logger LOG = Logger.getLogger(PinnedThreadMonitor.class);
+
+    private static final int MAX_FRAMES = 12;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ExecutorConfig executorConfig;
+
+    @ConfigProperty(name = "chat.execution.pinning-log.enabled", defaultValue = "true")
+    Boolean enabled;
+
+    @ConfigProperty(name = "chat.execution.pinning-log.threshold-ms", defaultValue = "20")
+    Long thresholdMs;
+
+    private RecordingStream stream;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled || !executorConfig.isVirtual()) {
+            return;
+        }
+        Counter pinned = Counter.builder("chat.virtual_threads.pinned")
+                .description("Bloqueios de virtual threads presas à carrier thread")
+                .register(registry);
+
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", recorded -> {
+            pinned.increment();
+            LOG.warnf("Virtual thread presa à carrier por %d ms:%s",
+                    recorded.getDuration().toMillis(), format(recorded.getStackTrace()));
+        });
+        stream.startAsync();
+        LOG.infof("Monitor de pinning ativo (limiar %d ms)", thresholdMs);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " (sem pilha)";
+        }
+        StringBuilder text = new StringBuilder();
+        int count = 0;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (count++ == MAX_FRAMES) {
+                text.append("\n\t...");
+                break;
+            }
+            text.append("\n\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber());
+        }
+        return text.toString();
+    }
+}
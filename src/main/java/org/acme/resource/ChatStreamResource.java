@@ -0,0 +1,33 @@
+package org.acme.resource;
+
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.acme.dto.ChatDTO;
+import org.acme.service.TherapyService;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+/**
+ * Streaming SSE da resposta do chatbot. Fica ao lado do POST /api/chat/message da
+ * ChatbotRoute, mas como recurso JAX-RS: o REST DSL do Camel não emite eventos parciais.
+ */
+@Path("/api/chat/message/stream")
+public class ChatStreamResource {
+
+    @Inject
+    TherapyService therapyService;
+
+    @POST
+    @Blocking // leitura do histórico no banco antes de abrir o stream
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.TEXT_PLAIN)
+    public Multi<String> stream(ChatDTO.ChatRequest request) {
+        return therapyService.streamMessage(request);
+    }
+}
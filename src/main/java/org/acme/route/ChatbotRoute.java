@@ -2,8 +2,16 @@ package org.acme.route;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.acme.cache.ConversationWindowCache;
+import org.acme.cache.FirstTurnResponseCache;
+import org.acme.cache.SuggestionsCache;
+import org.acme.config.ExecutorConfig;
+import org.acme.dto.BenchmarkDTO;
 import org.acme.dto.ChatDTO;
 import org.acme.entity.Message;
+import org.acme.service.ConversationSummaryService;
+import org.acme.service.EnrichmentService;
+import org.acme.service.ModelTierBenchmark;
 import org.acme.service.TherapyService;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.model.rest.RestBindingMode;
@@ -14,9 +22,33 @@ import java.util.List;
 @ApplicationScoped
 public class ChatbotRoute extends RouteBuilder {
 
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+
     @Inject
     TherapyService therapyService;
 
+    @Inject
+    EnrichmentService enrichmentService;
+
+    @Inject
+    ConversationWindowCache conversationWindowCache;
+
+    @Inject
+    SuggestionsCache suggestionsCache;
+
+    @Inject
+    FirstTurnResponseCache firstTurnResponseCache;
+
+    @Inject
+    ConversationSummaryService conversationSummaryService;
+
+    @Inject
+    ModelTierBenchmark modelTierBenchmark;
+
+    @Inject
+    ExecutorConfig executorConfig;
+
     @Override
     public void configure() throws Exception {
 
@@ -32,6 +64,7 @@ public class ChatbotRoute extends RouteBuilder {
                 .apiProperty("api.version", "1.0.0");
 
         // Endpoints REST
+        // (a versão em streaming SSE, POST /api/chat/message/stream, fica em ChatStreamResource)
         rest("/chat")
                 .description("Chat endpoints")
 
@@ -44,26 +77,56 @@ public class ChatbotRoute extends RouteBuilder {
                 .get("/history/{sessionId}")
                 .description("Obter histórico de conversas")
                 .param().name("sessionId").type(RestParamType.path).description("ID da sessão").endParam()
+                .param().name("page").type(RestParamType.query).description("Página, 0 = mais recente").endParam()
+                .param().name("size").type(RestParamType.query).description("Mensagens por página").endParam()
                 .to("direct:getHistory")
 
                 .get("/therapies")
                 .description("Listar terapias disponíveis")
-                .to("direct:getTherapies");
+                .to("direct:getTherapies")
+
+                .get("/enrichment/{messageId}")
+                .description("Obter sentimento e sugestões calculados em background")
+                .param().name("messageId").type(RestParamType.path).description("ID da mensagem").endParam()
+                .outType(ChatDTO.EnrichmentResponse.class)
+                .to("direct:getEnrichment")
+
+                .get("/metrics/caches")
+                .description("Estatísticas dos caches em memória")
+                .to("direct:getCacheStats")
+
+                .get("/metrics/enrichment")
+                .description("Profundidade da fila de enriquecimento")
+                .outType(ChatDTO.EnrichmentStats.class)
+                .to("direct:getEnrichmentStats");
+
+        rest("/benchmark")
+                .description("Benchmarks operacionais")
+
+                .post("/model-tiers")
+                .description("Comparar qualidade e latência dos modelos nas tarefas auxiliares")
+                .outType(BenchmarkDTO.TierBenchmarkResponse.class)
+                .to("direct:runModelTierBenchmark");
 
         // Rota: Processar mensagem
+        // processMessageAsync devolve CompletionStage: o Camel continua a exchange quando ele
+        // completa, sem prender a thread durante a chamada ao Claude
         from("direct:processMessage")
                 .routeId("process-message-route")
                 .log("Recebida mensagem: ${body}")
-                .bean(therapyService, "processMessage")
+                .bean(therapyService, "processMessageAsync")
                 .log("Resposta gerada: ${body}");
 
         // Rota: Obter histórico
-        from("direct:getHistory")
-                .routeId("get-history-route")
+        executorConfig.blocking(from("direct:getHistory")
+                .routeId("get-history-route"))
                 .log("Buscando histórico para sessão: ${header.sessionId}")
                 .process(exchange -> {
                     String sessionId = exchange.getIn().getHeader("sessionId", String.class);
-                    List<Message> messages = Message.findBySessionId(sessionId);
+                    int page = parseIntHeader(exchange.getIn().getHeader("page", String.class), 0);
+                    int size = parseIntHeader(exchange.getIn().getHeader("size", String.class), DEFAULT_HISTORY_PAGE_SIZE);
+                    List<Message> messages = Message.findHistoryPage(sessionId, Math.max(page, 0),
+                            Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE));
                     exchange.getIn().setBody(messages);
                 });
 
@@ -73,15 +136,60 @@ public class ChatbotRoute extends RouteBuilder {
                 .log("Listando terapias disponíveis")
                 .bean(therapyService, "getAvailableTherapies");
 
-        // Rota assíncrona para processamento em background
-        from("direct:analyzeConversation")
-                .routeId("analyze-conversation-route")
-                .log("Analisando padrões da conversa...")
-                .delay(1000)
+        // Rota: Obter enriquecimento de uma mensagem
+        executorConfig.blocking(from("direct:getEnrichment")
+                .routeId("get-enrichment-route"))
                 .process(exchange -> {
-                    // Aqui você pode adicionar análises mais complexas
-                    // como detecção de padrões, ML, etc.
-                    log.info("Análise de conversa concluída");
+                    Long messageId = exchange.getIn().getHeader("messageId", Long.class);
+                    ChatDTO.EnrichmentResponse enrichment = enrichmentService.getEnrichment(messageId);
+                    if (enrichment == null) {
+                        exchange.getIn().setHeader("CamelHttpResponseCode", 404);
+                    }
+                    exchange.getIn().setBody(enrichment);
                 });
+
+        // Rota: Estatísticas dos caches
+        from("direct:getCacheStats")
+                .routeId("get-cache-stats-route")
+                .process(exchange -> exchange.getIn().setBody(List.of(
+                        conversationWindowCache.stats(),
+                        suggestionsCache.stats(),
+                        firstTurnResponseCache.stats(),
+                        conversationSummaryService.stats()
+                )));
+
+        // Rota: Métricas da fila de enriquecimento
+        from("direct:getEnrichmentStats")
+                .routeId("get-enrichment-stats-route")
+                .bean(enrichmentService, "getStats");
+
+        // Rota: Benchmark dos tiers de modelo (desligado por padrão: gera chamadas pagas)
+        executorConfig.blocking(from("direct:runModelTierBenchmark")
+                .routeId("model-tier-benchmark-route"))
+                .process(exchange -> {
+                    if (!modelTierBenchmark.isEnabled()) {
+                        exchange.getIn().setHeader("CamelHttpResponseCode", 404);
+                        exchange.getIn().setBody(null);
+                        return;
+                    }
+                    exchange.getIn().setBody(modelTierBenchmark.run());
+                });
+
+        // Rota assíncrona para processamento em background (fila SEDA limitada)
+        from(EnrichmentService.ENDPOINT)
+                .routeId("analyze-conversation-route")
+                .log("Analisando mensagem ${body.messageId}")
+                .bean(enrichmentService, "enrich");
+    }
+
+    private static int parseIntHeader(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ignored) {
+            return defaultValue;
+        }
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.acme.config.ExecutorConfig;
 import org.acme.dto.CheckInDTO;
 import org.acme.dto.CheckInResponseDTO;
 import org.acme.service.CheckInService;
@@ -22,6 +23,10 @@ public class CheckInRoute extends RouteBuilder {
     @Inject
     CheckInService checkInService;
 
+    // Rotas que consultam o banco rodam em virtual threads quando chat.execution.mode=virtual
+    @Inject
+    ExecutorConfig executorConfig;
+
     // ObjectMapper configurado para Java 8 Date/Time
     private final ObjectMapper objectMapper;
 
@@ -102,8 +107,8 @@ public class CheckInRoute extends RouteBuilder {
         // ========== IMPLEMENTAÇÕES ==========
 
         // Criar Check-in
-        from("direct:createCheckIn")
-                .routeId("create-checkin-route")
+        executorConfig.blocking(from("direct:createCheckIn")
+                .routeId("create-checkin-route"))
                 .log("📝 Request recebido: ${body}")
                 .process(exchange -> {
                     @SuppressWarnings("unchecked")
@@ -139,8 +144,8 @@ public class CheckInRoute extends RouteBuilder {
 //                .log("✅ Check-in salvo!");
 
         // Obter check-in de hoje
-        from("direct:getTodayCheckIn")
-                .routeId("get-today-route")
+        executorConfig.blocking(from("direct:getTodayCheckIn")
+                .routeId("get-today-route"))
                 .log("🔍 Buscando check-in de hoje: ${header.userId}")
                 .process(exchange -> {
                     String userId = exchange.getIn().getHeader("userId", String.class);
@@ -159,8 +164,8 @@ public class CheckInRoute extends RouteBuilder {
                 });
 
         // Obter check-in por data
-        from("direct:getCheckInByDate")
-                .routeId("get-by-date-route")
+        executorConfig.blocking(from("direct:getCheckInByDate")
+                .routeId("get-by-date-route"))
                 .log("🔍 Buscando check-in: ${header.userId} - ${header.date}")
                 .process(exchange -> {
                     String userId = exchange.getIn().getHeader("userId", String.class);
@@ -187,8 +192,8 @@ public class CheckInRoute extends RouteBuilder {
                 });
 
         // Obter histórico
-        from("direct:getCheckInHistory")
-                .routeId("get-history-route")
+        executorConfig.blocking(from("direct:getCheckInHistory")
+                .routeId("get-checkin-history-route"))
                 .log("📋 Buscando histórico: ${header.userId}")
                 .process(exchange -> {
                     String userId = exchange.getIn().getHeader("userId", String.class);
@@ -210,8 +215,8 @@ public class CheckInRoute extends RouteBuilder {
                 });
 
         // Obter estatísticas
-        from("direct:getCheckInStats")
-                .routeId("get-stats-route")
+        executorConfig.blocking(from("direct:getCheckInStats")
+                .routeId("get-stats-route"))
                 .log("📊 Buscando estatísticas: ${header.userId}")
                 .process(exchange -> {
                     String userId = exchange.getIn().getHeader("userId", String.class);
@@ -233,8 +238,8 @@ public class CheckInRoute extends RouteBuilder {
                 });
 
         // Deletar check-in
-        from("direct:deleteCheckIn")
-                .routeId("delete-route")
+        executorConfig.blocking(from("direct:deleteCheckIn")
+                .routeId("delete-route"))
                 .log("🗑️ Deletando check-in: ${header.userId} - ${header.date}")
                 .process(exchange -> {
                     String userId = exchange.getIn().getHeader("userId", String.class);
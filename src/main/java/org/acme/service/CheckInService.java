@@ -6,6 +6,7 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.acme.dto.CheckInDTO;
 import org.acme.dto.CheckInResponseDTO;
+import org.acme.entity.CheckInStatsRow;
 import org.acme.entity.DailyCheckIn;
 import org.jboss.logging.Logger;
 
@@ -71,57 +72,24 @@ public class CheckInService {
     }
 
     public CheckInDTO.CheckInStats getCheckInStats(String userId, Integer days) {
-        List<DailyCheckIn> checkIns = days != null && days > 0
-                ? DailyCheckIn.findByUserIdLastDays(userId, days)
-                : DailyCheckIn.findByUserId(userId);
+        LocalDate startDate = days != null && days > 0 ? LocalDate.now().minusDays(days) : null;
+        CheckInStatsRow row = DailyCheckIn.findStats(userId, startDate);
 
         CheckInDTO.CheckInStats stats = new CheckInDTO.CheckInStats();
 
-        if (checkIns.isEmpty()) {
+        if (row.totalCheckIns == 0) {
             return stats;
         }
 
-        // Calcular médias
-        double sumEnergy = 0, sumSleep = 0;
-        int count = 0;
-
-        for (DailyCheckIn checkIn : checkIns) {
-            sumEnergy += checkIn.getEnergyLevel();
-            sumSleep += checkIn.getSleepQuality();
-            count++;
-        }
-
-        stats.setAverageEnergy(Math.round(sumEnergy / count * 10.0) / 10.0);
-        stats.setAverageSleep(Math.round(sumSleep / count * 10.0) / 10.0);
-        stats.setTotalCheckIns(count);
-        stats.setLastCheckIn(checkIns.get(0).getCheckinDate());
-
-        // Calcular streak (dias consecutivos)
-        stats.setStreak(calculateStreak(checkIns));
+        stats.setAverageEnergy(Math.round(row.averageEnergy * 10.0) / 10.0);
+        stats.setAverageSleep(Math.round(row.averageSleep * 10.0) / 10.0);
+        stats.setTotalCheckIns((int) row.totalCheckIns);
+        stats.setLastCheckIn(row.lastCheckIn);
+        stats.setStreak(row.streak);
 
         return stats;
     }
 
-    private Integer calculateStreak(List<DailyCheckIn> checkIns) {
-        if (checkIns.isEmpty()) {
-            return 0;
-        }
-
-        int streak = 0;
-        LocalDate expectedDate = LocalDate.now();
-
-        for (DailyCheckIn checkIn : checkIns) {
-            if (checkIn.getCheckinDate().equals(expectedDate)) {
-                streak++;
-                expectedDate = expectedDate.minusDays(1);
-            } else {
-                break;
-            }
-        }
-
-        return streak;
-    }
-
     @Transactional
     public boolean deleteCheckIn(String userId, LocalDate date) {
         DailyCheckIn checkIn = DailyCheckIn.findByUserIdAndDate(userId, date);
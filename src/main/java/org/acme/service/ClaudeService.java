@@ -1,25 +1,85 @@
 package org.acme.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.acme.client.ClaudeClient;
+import jakarta.inject.Named;
+import org.acme.cache.ConversationWindowCache;
+import org.acme.cache.FirstTurnResponseCache;
+import org.acme.cache.SuggestionsCache;
+import org.acme.client.CallKind;
+import org.acme.client.CircuitBreakerOpenException;
+import org.acme.client.LlmRouter;
+import org.acme.client.ModelTiers;
+import org.acme.client.RequestHedger;
+import org.acme.dto.ChatDTO;
 import org.acme.dto.ClaudeDTO;
+import org.acme.entity.ConversationTurn;
 import org.acme.entity.Message;
+import org.acme.metrics.ClaudeMetrics;
+import org.acme.util.TokenEstimator;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 @ApplicationScoped
 public class ClaudeService {
 
     private static final Logger LOG = Logger.getLogger(ClaudeService.class);
 
+    // Abaixo disso não vale a pena mandar um turno cortado
+    private static final int MIN_TRUNCATED_TURN_TOKENS = 64;
+
+    private static final String RESPONSE_FALLBACK =
+            "Desculpe, ocorreu um erro ao processar sua mensagem. Por favor, tente novamente em alguns instantes.";
+
+    @Inject
+    LlmRouter llmRouter;
+
+    @Inject
+    RequestHedger requestHedger;
+
+    // Modelo e parâmetros por tipo de chamada (tarefas auxiliares num modelo menor)
+    @Inject
+    ModelTiers modelTiers;
+
+    @Inject
+    ClaudeMetrics claudeMetrics;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     @Inject
-    @RestClient
-    ClaudeClient claudeClient;
+    LocalSentimentAnalyzer localSentimentAnalyzer;
+
+    @Inject
+    SystemPrompts systemPrompts;
+
+    @Inject
+    SuggestionsCache suggestionsCache;
+
+    @Inject
+    FirstTurnResponseCache firstTurnResponseCache;
+
+    @Inject
+    ConversationSummaryService conversationSummaryService;
+
+    @Inject
+    ConversationWindowCache conversationWindowCache;
+
+    // Pool de workers ou virtual threads, conforme chat.execution.mode
+    @Inject
+    @Named("blockingExecutor")
+    Executor blockingExecutor;
 
     @ConfigProperty(name = "claude.model", defaultValue = "claude-sonnet-4-20250514")
     String model;
@@ -30,64 +90,296 @@ public class ClaudeService {
     @ConfigProperty(name = "claude.temperature", defaultValue = "0.7")
     Double temperature;
 
+    @ConfigProperty(name = "claude.history.token-budget.response", defaultValue = "2000")
+    Integer responseHistoryBudget;
+
+    @ConfigProperty(name = "claude.history.token-budget.combined", defaultValue = "1500")
+    Integer combinedHistoryBudget;
+
+    @ConfigProperty(name = "claude.prompt-cache.history", defaultValue = "false")
+    Boolean promptCacheHistory;
+
+    @ConfigProperty(name = "sentiment.mode", defaultValue = "local")
+    String sentimentMode;
+
+    @ConfigProperty(name = "sentiment.hybrid.min-confidence", defaultValue = "0.5")
+    Double sentimentMinConfidence;
+
     /**
-     * Gera resposta usando Claude com contexto de terapias integrativas
+     * Gera resposta usando Claude com contexto de terapias integrativas. Só a leitura do
+     * histórico vai para uma thread de trabalho; a chamada ao Claude não ocupa thread
      */
-    public String generateResponse(String userMessage, String therapyType, String sessionId) {
-        try {
-            // Validações básicas
-            if (userMessage == null || userMessage.trim().isEmpty()) {
-                throw new IllegalArgumentException("Mensagem do usuário não pode estar vazia");
+    public Uni<String> generateResponseAsync(String userMessage, String therapyType, String sessionId) {
+        return onWorker(() -> prepareResponse(userMessage, therapyType, sessionId))
+                .chain(prepared -> prepared.cached != null
+                        ? Uni.createFrom().item(prepared.cached)
+                        : requestHedger.createMessage(CallKind.RESPONSE, prepared.request)
+                                .map(response -> readResponse(prepared, response, userMessage, therapyType)))
+                .onFailure().recoverWithItem(this::responseFallback);
+    }
+
+    /**
+     * Histórico, cache de primeira mensagem e montagem da requisição (lê o banco)
+     */
+    private PreparedResponse prepareResponse(String userMessage, String therapyType, String sessionId) {
+        // Validações básicas
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("Mensagem do usuário não pode estar vazia");
+        }
+
+        // Busca histórico da conversa
+        List<ConversationTurn> history = loadHistory(sessionId);
+
+        // Primeira mensagem da sessão: a resposta só depende de (modelo, terapia, mensagem)
+        boolean firstTurn = history.isEmpty() && firstTurnResponseCache.isEnabledFor(therapyType);
+        if (firstTurn) {
+            String cached = firstTurnResponseCache.get(model, therapyType, userMessage, temperature);
+            if (cached != null) {
+                LOG.debugf("Resposta de primeira mensagem servida do cache (terapia: %s)", therapyType);
+                return new PreparedResponse(null, cached, true);
             }
+        }
+
+        ClaudeDTO.MessageRequest request = buildResponseRequest(userMessage,
+                systemPrompts.response(therapyType, model), sessionId, history, responseHistoryBudget);
+
+        // Log para debug
+        LOG.infof("📤 Chamando Claude API - modelo: %s, tokens: %d, mensagens: %d",
+                model, maxTokens, request.messages.size());
+        return new PreparedResponse(request, null, firstTurn);
+    }
+
+    private String readResponse(PreparedResponse prepared, ClaudeDTO.MessageResponse response,
+                                String userMessage, String therapyType) {
+        // Extrai resposta
+        if (response.content != null && !response.content.isEmpty()) {
+            String claudeResponse = extractTextFromContent(response.content);
+            LOG.infof("✅ Resposta recebida - Input tokens: %d, Output tokens: %d, Cache read: %d",
+                    response.usage.inputTokens,
+                    response.usage.outputTokens,
+                    response.usage.cacheReadInputTokens);
+            if (prepared.firstTurn) {
+                firstTurnResponseCache.put(model, therapyType, userMessage, temperature, claudeResponse);
+            }
+            return claudeResponse;
+        }
+
+        claudeMetrics.recordFallback(CallKind.RESPONSE);
+        return "Desculpe, não consegui processar sua mensagem no momento.";
+    }
 
-            // Busca histórico da conversa
-            List<Message> history = Message.findBySessionId(sessionId);
+    private String responseFallback(Throwable e) {
+        if (e instanceof CircuitBreakerOpenException) {
+            LOG.warnf("⚡ %s; resposta servida por fallback", e.getMessage());
+        } else {
+            LOG.errorf(e, "❌ Erro ao chamar Claude API: %s", e.getMessage());
+        }
+        claudeMetrics.recordFallback(CallKind.RESPONSE);
+        return RESPONSE_FALLBACK;
+    }
 
-            // Constrói o system prompt
-            String systemPrompt = buildSystemPrompt(therapyType);
+    /**
+     * Modo combinado: uma única chamada devolve resposta, sentimento e sugestões em JSON.
+     * Retorna null se a saída não puder ser validada, para que o chamador use o fluxo de três chamadas.
+     */
+    public Uni<ChatDTO.ChatResponse> generateCombinedAsync(String userMessage, String therapyType, String sessionId) {
+        return onWorker(() -> prepareCombined(userMessage, therapyType, sessionId))
+                .chain(request -> llmRouter.createMessageAsync(CallKind.COMBINED, request))
+                .map(response -> readCombined(response, therapyType, sessionId))
+                .onFailure().recoverWithItem(this::combinedFallback);
+    }
 
-            // Constrói as mensagens com histórico
-            List<ClaudeDTO.Message> messages = buildMessages(userMessage, history);
+    private ClaudeDTO.MessageRequest prepareCombined(String userMessage, String therapyType, String sessionId) {
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("Mensagem do usuário não pode estar vazia");
+        }
 
-            // Cria requisição
-            ClaudeDTO.MessageRequest request = new ClaudeDTO.MessageRequest();
-            request.model = model;
-            request.maxTokens = maxTokens;
-            request.temperature = temperature;
-            request.system = systemPrompt;
-            request.messages = messages;
-            request.topP = 1.0;
-            // ❌ REMOVIDO - Claude API não aceita top_k
-            // request.topK = 5;
+        ClaudeDTO.MessageRequest request = buildResponseRequest(userMessage,
+                systemPrompts.combined(therapyType, model), sessionId, loadHistory(sessionId), combinedHistoryBudget);
+        request.maxTokens = maxTokens + 200;
+        // Prefill do assistant força a saída a começar como objeto JSON
+        request.messages.add(new ClaudeDTO.Message("assistant", "{"));
 
-            // Log para debug
-            LOG.infof("📤 Chamando Claude API - modelo: %s, tokens: %d, mensagens: %d",
-                    model, maxTokens, messages.size());
+        LOG.infof("📤 Chamando Claude API (combinado) - modelo: %s, mensagens: %d",
+                model, request.messages.size());
+        return request;
+    }
 
-            // Chama API Claude
-            ClaudeDTO.MessageResponse response = claudeClient.createMessage(request);
+    private ChatDTO.ChatResponse readCombined(ClaudeDTO.MessageResponse response, String therapyType, String sessionId) {
+        if (response.content == null || response.content.isEmpty()) {
+            return null;
+        }
 
-            // Extrai resposta
-            if (response.content != null && !response.content.isEmpty()) {
-                String claudeResponse = extractTextFromContent(response.content);
-                LOG.infof("✅ Resposta recebida - Input tokens: %d, Output tokens: %d",
-                        response.usage.inputTokens,
-                        response.usage.outputTokens);
-                return claudeResponse;
+        String json = "{" + extractTextFromContent(response.content);
+        ClaudeDTO.StructuredReply structured = parseStructuredReply(json);
+        if (structured == null) {
+            LOG.warnf("Saída combinada inválida, usando fluxo de três chamadas: %s", json);
+            claudeMetrics.recordFallback(CallKind.COMBINED);
+            return null;
+        }
+
+        LOG.infof("✅ Resposta combinada recebida - Input tokens: %d, Output tokens: %d, Cache read: %d",
+                response.usage.inputTokens,
+                response.usage.outputTokens,
+                response.usage.cacheReadInputTokens);
+
+        ChatDTO.ChatResponse chatResponse = new ChatDTO.ChatResponse();
+        chatResponse.sessionId = sessionId;
+        chatResponse.message = structured.reply.trim();
+        chatResponse.therapyType = therapyType;
+        chatResponse.sentiment = structured.sentiment;
+        chatResponse.suggestions = structured.suggestions.toArray(new String[0]);
+        return chatResponse;
+    }
+
+    private ChatDTO.ChatResponse combinedFallback(Throwable e) {
+        if (e instanceof CircuitBreakerOpenException) {
+            LOG.warnf("⚡ %s; usando o fluxo de três chamadas", e.getMessage());
+        } else {
+            LOG.errorf(e, "❌ Erro na chamada combinada: %s", e.getMessage());
+        }
+        claudeMetrics.recordFallback(CallKind.COMBINED);
+        return null;
+    }
+
+    /**
+     * Valida e normaliza o JSON do modo combinado
+     */
+    private ClaudeDTO.StructuredReply parseStructuredReply(String json) {
+        ClaudeDTO.StructuredReply structured;
+        try {
+            // Descarta qualquer texto após o fechamento do objeto
+            int end = json.lastIndexOf('}');
+            structured = objectMapper.readValue(end > 0 ? json.substring(0, end + 1) : json,
+                    ClaudeDTO.StructuredReply.class);
+        } catch (Exception e) {
+            return null;
+        }
+
+        if (structured.reply == null || structured.reply.isBlank()) {
+            return null;
+        }
+
+        String sentiment = structured.sentiment != null ? structured.sentiment.trim().toLowerCase() : "";
+        if (sentiment.contains("positivo")) {
+            structured.sentiment = "positivo";
+        } else if (sentiment.contains("negativo")) {
+            structured.sentiment = "negativo";
+        } else {
+            structured.sentiment = "neutro";
+        }
+
+        if (structured.suggestions == null) {
+            return null;
+        }
+        List<String> validSuggestions = new ArrayList<>();
+        for (String suggestion : structured.suggestions) {
+            if (suggestion != null && !suggestion.isBlank() && validSuggestions.size() < 3) {
+                validSuggestions.add(suggestion.trim());
             }
+        }
+        if (validSuggestions.isEmpty()) {
+            return null;
+        }
+        structured.suggestions = validSuggestions;
+        return structured;
+    }
+
+    /**
+     * Gera a resposta em streaming: emite os trechos de texto conforme chegam
+     * nos eventos content_block_delta da API.
+     */
+    public Multi<String> streamResponse(String userMessage, String therapyType, String sessionId) {
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            return Multi.createFrom().failure(new IllegalArgumentException("Mensagem do usuário não pode estar vazia"));
+        }
 
-            return "Desculpe, não consegui processar sua mensagem no momento.";
+        ClaudeDTO.MessageRequest request = buildResponseRequest(userMessage,
+                systemPrompts.response(therapyType, model), sessionId, loadHistory(sessionId), responseHistoryBudget);
+        request.stream = true;
+
+        LOG.infof("📤 Chamando Claude API (stream) - modelo: %s, tokens: %d, mensagens: %d",
+                model, maxTokens, request.messages.size());
+
+        return llmRouter.streamMessage(CallKind.RESPONSE, request)
+                .map(this::parseStreamEvent)
+                .filter(event -> "content_block_delta".equals(event.type)
+                        && event.delta != null
+                        && event.delta.text != null)
+                .map(event -> event.delta.text)
+                .onFailure(CircuitBreakerOpenException.class).recoverWithItem(e -> {
+                    LOG.warnf("⚡ %s; resposta servida por fallback", e.getMessage());
+                    claudeMetrics.recordFallback(CallKind.RESPONSE);
+                    return RESPONSE_FALLBACK;
+                });
+    }
 
+    private ClaudeDTO.StreamEvent parseStreamEvent(String data) {
+        try {
+            return objectMapper.readValue(data, ClaudeDTO.StreamEvent.class);
         } catch (Exception e) {
-            LOG.errorf(e, "❌ Erro ao chamar Claude API: %s", e.getMessage());
-            return "Desculpe, ocorreu um erro ao processar sua mensagem. Por favor, tente novamente em alguns instantes.";
+            // Mutiny não aceita itens nulos: devolve um evento vazio que será filtrado
+            LOG.warnf("Evento de stream ignorado: %s", data);
+            return new ClaudeDTO.StreamEvent();
+        }
+    }
+
+    /**
+     * Monta a requisição da resposta principal (system prompt + resumo + histórico)
+     */
+    private ClaudeDTO.MessageRequest buildResponseRequest(String userMessage, Object system, String sessionId,
+                                                          List<ConversationTurn> history, int historyTokenBudget) {
+        ClaudeDTO.MessageRequest request = new ClaudeDTO.MessageRequest();
+        request.model = model;
+        request.maxTokens = maxTokens;
+        request.temperature = temperature;
+        request.system = system;
+
+        // Resumo dos turnos antigos entra no lugar deles, consumindo parte do orçamento;
+        // os turnos que ele ainda não cobre vão crus, do mais recente para o mais antigo
+        ConversationSummaryService.Summary summary = conversationSummaryService.getSummary(sessionId);
+        if (summary != null) {
+            request.system = systemPrompts.withContext(request.system, "RESUMO DA CONVERSA ATÉ AQUI:\n" + summary.text);
+            historyTokenBudget = Math.max(0, historyTokenBudget - TokenEstimator.estimate(summary.text));
+            history = summary.uncovered(history);
+        }
+
+        request.messages = buildMessages(userMessage, history, historyTokenBudget);
+        if (promptCacheHistory) {
+            systemPrompts.markCacheBreakpoint(request);
+        }
+        request.topP = 1.0;
+        // ❌ REMOVIDO - Claude API não aceita top_k
+        // request.topK = 5;
+        return request;
+    }
+
+    /**
+     * Janela de histórico: memória para sessões ativas, banco para sessões frias. Com resumo,
+     * inclui os turnos que saíram da janela e ainda não foram resumidos.
+     */
+    private List<ConversationTurn> loadHistory(String sessionId) {
+        List<ConversationTurn> history = conversationWindowCache.get(sessionId);
+        if (history == null) {
+            long stamp = conversationWindowCache.stamp(sessionId);
+            history = Message.findRecentTurns(sessionId, conversationWindowCache.windowSize());
+            conversationWindowCache.put(sessionId, stamp, history);
         }
+        return history;
+    }
+
+    /**
+     * Trabalho bloqueante (banco) fora do event loop, dentro de uma transação própria
+     */
+    private <T> Uni<T> onWorker(Callable<T> work) {
+        return Uni.createFrom().item(() -> QuarkusTransaction.requiringNew().call(work))
+                .runSubscriptionOn(blockingExecutor);
     }
 
     /**
      * Extrai texto dos blocos de conteúdo
      */
-    private String extractTextFromContent(List<ClaudeDTO.ContentBlock> content) {
+    String extractTextFromContent(List<ClaudeDTO.ContentBlock> content) {
         StringBuilder text = new StringBuilder();
         for (ClaudeDTO.ContentBlock block : content) {
             if ("text".equals(block.type) && block.text != null) {
@@ -100,131 +392,269 @@ public class ClaudeService {
     /**
      * Constrói lista de mensagens incluindo histórico
      */
-    private List<ClaudeDTO.Message> buildMessages(String userMessage, List<Message> history) {
-        List<ClaudeDTO.Message> messages = new ArrayList<>();
-
-        // Adiciona histórico (últimas 5 interações)
-        int historyLimit = Math.min(5, history.size());
-        for (int i = history.size() - historyLimit; i < history.size(); i++) {
-            Message msg = history.get(i);
+    List<ClaudeDTO.Message> buildMessages(String userMessage, List<ConversationTurn> history, int tokenBudget) {
+        Deque<ClaudeDTO.Message> packed = new ArrayDeque<>();
+        int remaining = tokenBudget;
+        int packedTokens = 0;
+        int discardedTokens = 0;
+
+        // Empacota o histórico do turno mais recente para o mais antigo dentro do orçamento
+        for (int i = history.size() - 1; i >= 0; i--) {
+            ConversationTurn turn = history.get(i);
+            int userTokens = messageTokens(turn.userMessage);
+            int botTokens = messageTokens(turn.botResponse);
+            int cost = userTokens + botTokens;
+
+            if (cost <= remaining) {
+                addTurn(packed, turn.userMessage, turn.botResponse);
+                remaining -= cost;
+                packedTokens += cost;
+                continue;
+            }
 
-            // Adiciona mensagem do usuário
-            if (msg.userMessage != null && !msg.userMessage.trim().isEmpty()) {
-                messages.add(new ClaudeDTO.Message("user", msg.userMessage));
+            // Não coube inteiro: mantém a pergunta e corta a resposta, se sobrar espaço útil
+            if (botTokens > 0 && userTokens + MIN_TRUNCATED_TURN_TOKENS <= remaining) {
+                String truncated = TokenEstimator.truncate(turn.botResponse,
+                        remaining - userTokens - TokenEstimator.MESSAGE_OVERHEAD);
+                int truncatedCost = userTokens + messageTokens(truncated);
+                addTurn(packed, turn.userMessage, truncated);
+                packedTokens += truncatedCost;
+                discardedTokens += cost - truncatedCost;
+            } else {
+                discardedTokens += cost;
             }
 
-            // Adiciona resposta do assistant
-            if (msg.botResponse != null && !msg.botResponse.trim().isEmpty()) {
-                messages.add(new ClaudeDTO.Message("assistant", msg.botResponse));
+            // Turnos mais antigos ficam de fora
+            for (int j = i - 1; j >= 0; j--) {
+                discardedTokens += messageTokens(history.get(j).userMessage) + messageTokens(history.get(j).botResponse);
             }
+            break;
         }
 
+        // A API exige que a conversa comece pelo usuário
+        while (!packed.isEmpty() && !"user".equals(packed.peekFirst().role)) {
+            packed.removeFirst();
+        }
+
+        LOG.infof("🧮 Histórico - tokens enviados: %d, descartados: %d, orçamento: %d",
+                packedTokens, discardedTokens, tokenBudget);
+
+        List<ClaudeDTO.Message> messages = new ArrayList<>(packed);
+
         // Adiciona mensagem atual do usuário
         messages.add(new ClaudeDTO.Message("user", userMessage));
 
         return messages;
     }
 
-    // ... (resto dos métodos buildSystemPrompt, analyzeSentiment, etc permanecem iguais)
+    private static void addTurn(Deque<ClaudeDTO.Message> packed, String userMessage, String botResponse) {
+        // Inserção no início: o turno entra antes dos mais recentes já empacotados
+        if (botResponse != null && !botResponse.trim().isEmpty()) {
+            packed.addFirst(new ClaudeDTO.Message("assistant", botResponse));
+        }
+        if (userMessage != null && !userMessage.trim().isEmpty()) {
+            packed.addFirst(new ClaudeDTO.Message("user", userMessage));
+        }
+    }
 
-    private String buildSystemPrompt(String therapyType) {
-        StringBuilder prompt = new StringBuilder();
+    private static int messageTokens(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return 0;
+        }
+        return TokenEstimator.estimate(text) + TokenEstimator.MESSAGE_OVERHEAD;
+    }
 
-        prompt.append("Você é um assistente virtual especializado em Terapias Integrativas e Medicina Complementar. ");
-        prompt.append("Seu objetivo é ajudar, orientar e educar sobre práticas terapêuticas de forma acolhedora, empática e baseada em evidências.\n\n");
+    /**
+     * Atualiza o resumo incremental da conversa com os turnos que saíram da janela.
+     * Retorna null em caso de erro, mantendo o resumo anterior.
+     */
+    public String summarizeConversation(String previousSummary, List<ConversationTurn> turns) {
+        try {
+            StringBuilder transcript = new StringBuilder();
+            for (ConversationTurn turn : turns) {
+                if (turn.userMessage != null) {
+                    transcript.append("Usuário: ").append(turn.userMessage).append('\n');
+                }
+                if (turn.botResponse != null) {
+                    transcript.append("Assistente: ").append(turn.botResponse).append('\n');
+                }
+            }
 
-        prompt.append("DIRETRIZES IMPORTANTES:\n");
-        prompt.append("• Seja empático, acolhedor e respeitoso com as experiências e crenças do usuário\n");
-        prompt.append("• Forneça informações baseadas em evidências científicas quando disponível\n");
-        prompt.append("• NUNCA substitua diagnóstico, prescrição ou tratamento médico profissional\n");
-        prompt.append("• Sempre incentive consulta com profissionais qualificados e regulamentados\n");
-        prompt.append("• Mantenha respostas concisas e objetivas (máximo 3-4 parágrafos)\n");
-        prompt.append("• Use linguagem clara, acessível e livre de jargões desnecessários\n");
-        prompt.append("• Respeite todas as tradições terapêuticas sem preconceitos\n");
-        prompt.append("• Em caso de sintomas graves, oriente busca imediata por atendimento médico\n");
-        prompt.append("• Seja honesto sobre limitações e incertezas do conhecimento\n\n");
-        prompt.append("• Evite responder à perguntas que saiam do contexto fornecido, a não ser que seja possível usar a resposta para direcionar novamente ao contexto\n\n");
+            String userPrompt = String.format(
+                    "Resumo anterior:\n%s\n\nNovos trechos da conversa:\n%s\n" +
+                            "Atualize o resumo incorporando os novos trechos. Mantenha terapias discutidas, " +
+                            "sintomas, preferências e recomendações já dadas. Máximo de 150 palavras, sem introdução.",
+                    previousSummary != null ? previousSummary : "(nenhum)", transcript
+            );
 
-        // ... (resto do switch case permanece igual)
+            ClaudeDTO.MessageRequest request = modelTiers.newRequest(CallKind.SUMMARY);
+            request.system = "Você resume conversas de um assistente de terapias integrativas de forma fiel e compacta.";
+            request.messages = List.of(new ClaudeDTO.Message("user", userPrompt));
 
-        switch (therapyType != null ? therapyType.toLowerCase() : "geral") {
-            case "ayurveda":
-                prompt.append("FOCO ATUAL: Ayurveda\n");
-                prompt.append("Sistema medicinal milenar da Índia que busca equilíbrio através dos doshas (Vata, Pitta, Kapha), ");
-                prompt.append("alimentação adequada ao biotipo, rotinas diárias (dinacharya), estações (ritucharya) e práticas de autocuidado.\n");
-                prompt.append("Aborde: constituição individual, desequilíbrios, alimentação, ervas ayurvédicas, yoga e meditação.");
-                break;
-            // ... (demais cases)
-            default:
-                prompt.append("FOCO ATUAL: Terapias Integrativas em Geral\n");
-                prompt.append("Abordagem holística da saúde que integra práticas complementares à medicina convencional.");
-        }
+            ClaudeDTO.MessageResponse response = llmRouter.createMessage(CallKind.SUMMARY, request);
 
-        return prompt.toString();
+            if (response.content != null && !response.content.isEmpty()) {
+                String summary = extractTextFromContent(response.content).trim();
+                return summary.isEmpty() ? null : summary;
+            }
+        } catch (CircuitBreakerOpenException e) {
+            LOG.warnf("%s; resumo adiado", e.getMessage());
+        } catch (Exception e) {
+            LOG.errorf(e, "Erro ao resumir conversa: %s", e.getMessage());
+        }
+        return null;
     }
 
+    /**
+     * Sentimento da mensagem conforme sentiment.mode:
+     * llm (chamada ao Claude), local (léxico em processo) ou hybrid (Claude só quando a confiança local é baixa)
+     */
     public String analyzeSentiment(String text) {
+        if (!needsLlmSentiment(text)) {
+            return localSentimentAnalyzer.analyze(text).label;
+        }
         try {
-            ClaudeDTO.MessageRequest request = new ClaudeDTO.MessageRequest();
-            request.model = model;
-            request.maxTokens = 50;
-            request.temperature = 0.3;
-            request.system = "Analise o sentimento do texto e responda apenas com uma palavra: positivo, negativo ou neutro";
-            request.messages = List.of(new ClaudeDTO.Message("user", text));
+            return readSentiment(llmRouter.createMessage(CallKind.SENTIMENT, sentimentRequest(text)));
+        } catch (Exception e) {
+            return sentimentFallback(e);
+        }
+    }
 
-            ClaudeDTO.MessageResponse response = claudeClient.createMessage(request);
+    /**
+     * Versão não bloqueante de {@link #analyzeSentiment}
+     */
+    public Uni<String> analyzeSentimentAsync(String text) {
+        if (!needsLlmSentiment(text)) {
+            return Uni.createFrom().item(localSentimentAnalyzer.analyze(text).label);
+        }
+        return llmRouter.createMessageAsync(CallKind.SENTIMENT, sentimentRequest(text))
+                .map(this::readSentiment)
+                .onFailure().recoverWithItem(this::sentimentFallback);
+    }
 
-            if (response.content != null && !response.content.isEmpty()) {
-                String sentiment = extractTextFromContent(response.content).trim().toLowerCase();
-                if (sentiment.contains("positivo")) return "positivo";
-                if (sentiment.contains("negativo")) return "negativo";
-                return "neutro";
+    private boolean needsLlmSentiment(String text) {
+        if ("llm".equalsIgnoreCase(sentimentMode)) {
+            return true;
+        }
+        if ("hybrid".equalsIgnoreCase(sentimentMode)) {
+            LocalSentimentAnalyzer.Result local = localSentimentAnalyzer.analyze(text);
+            if (local.confidence < sentimentMinConfidence) {
+                LOG.debugf("Sentimento local com baixa confiança (%.2f), consultando Claude", local.confidence);
+                return true;
             }
-        } catch (Exception e) {
+        }
+        return false;
+    }
+
+    ClaudeDTO.MessageRequest sentimentRequest(String text) {
+        ClaudeDTO.MessageRequest request = modelTiers.newRequest(CallKind.SENTIMENT);
+        request.system = "Analise o sentimento do texto e responda apenas com uma palavra: positivo, negativo ou neutro";
+        request.messages = List.of(new ClaudeDTO.Message("user", text));
+        return request;
+    }
+
+    String readSentiment(ClaudeDTO.MessageResponse response) {
+        if (response.content != null && !response.content.isEmpty()) {
+            String sentiment = extractTextFromContent(response.content).trim().toLowerCase();
+            if (sentiment.contains("positivo")) return "positivo";
+            if (sentiment.contains("negativo")) return "negativo";
+        }
+        return "neutro";
+    }
+
+    private String sentimentFallback(Throwable e) {
+        if (e instanceof CircuitBreakerOpenException) {
+            LOG.debugf("%s; sentimento neutro", e.getMessage());
+        } else {
             LOG.errorf(e, "Erro ao analisar sentimento: %s", e.getMessage());
         }
+        claudeMetrics.recordFallback(CallKind.SENTIMENT);
         return "neutro";
     }
 
     public String[] generateSuggestions(String context, String therapyType) {
+        String[] cached = suggestionsCache.get(therapyType, context);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            String userPrompt = String.format(
-                    "Baseado neste contexto de conversa sobre %s: '%s', " +
-                            "sugira exatamente 3 perguntas curtas e diretas (máximo 10 palavras cada) " +
-                            "que o usuário pode fazer para aprofundar o tema. " +
-                            "Retorne apenas as 3 perguntas, uma por linha, sem numeração, prefixos ou explicações.",
-                    therapyType, context
-            );
+            ClaudeDTO.MessageResponse response = llmRouter.createMessage(
+                    CallKind.SUGGESTIONS, suggestionsRequest(context, therapyType));
+            return readSuggestions(response, context, therapyType);
+        } catch (Exception e) {
+            return suggestionsFallback(e, therapyType);
+        }
+    }
 
-            ClaudeDTO.MessageRequest request = new ClaudeDTO.MessageRequest();
-            request.model = model;
-            request.maxTokens = 150;
-            request.temperature = 0.8;
-            request.system = "Você é um especialista em gerar perguntas relevantes sobre terapias integrativas.";
-            request.messages = List.of(new ClaudeDTO.Message("user", userPrompt));
+    /**
+     * Versão não bloqueante de {@link #generateSuggestions}
+     */
+    public Uni<String[]> generateSuggestionsAsync(String context, String therapyType) {
+        String[] cached = suggestionsCache.get(therapyType, context);
+        if (cached != null) {
+            return Uni.createFrom().item(cached);
+        }
+        return llmRouter.createMessageAsync(CallKind.SUGGESTIONS, suggestionsRequest(context, therapyType))
+                .map(response -> readSuggestions(response, context, therapyType))
+                .onFailure().recoverWithItem(e -> suggestionsFallback(e, therapyType));
+    }
 
-            ClaudeDTO.MessageResponse response = claudeClient.createMessage(request);
+    ClaudeDTO.MessageRequest suggestionsRequest(String context, String therapyType) {
+        String userPrompt = String.format(
+                "Baseado neste contexto de conversa sobre %s: '%s', " +
+                        "sugira exatamente 3 perguntas curtas e diretas (máximo 10 palavras cada) " +
+                        "que o usuário pode fazer para aprofundar o tema. " +
+                        "Retorne apenas as 3 perguntas, uma por linha, sem numeração, prefixos ou explicações.",
+                therapyType, context
+        );
+
+        ClaudeDTO.MessageRequest request = modelTiers.newRequest(CallKind.SUGGESTIONS);
+        request.system = "Você é um especialista em gerar perguntas relevantes sobre terapias integrativas.";
+        request.messages = List.of(new ClaudeDTO.Message("user", userPrompt));
+        return request;
+    }
 
-            if (response.content != null && !response.content.isEmpty()) {
-                String suggestions = extractTextFromContent(response.content);
-                String[] lines = suggestions.split("\n");
-                List<String> validSuggestions = new ArrayList<>();
-
-                for (String line : lines) {
-                    String cleaned = line.trim()
-                            .replaceAll("^[0-9]+[.)\\-]\\s*", "")
-                            .replaceAll("^[•\\-*]\\s*", "");
-                    if (!cleaned.isEmpty() && validSuggestions.size() < 3) {
-                        validSuggestions.add(cleaned);
-                    }
-                }
+    private String[] readSuggestions(ClaudeDTO.MessageResponse response, String context, String therapyType) {
+        String[] result = parseSuggestions(response);
+        if (result == null) {
+            return getDefaultSuggestions(therapyType);
+        }
+        suggestionsCache.put(therapyType, context, result);
+        return result;
+    }
+
+    /**
+     * Até 3 sugestões limpas do texto da resposta, ou null se ela veio vazia
+     */
+    String[] parseSuggestions(ClaudeDTO.MessageResponse response) {
+        if (response.content == null || response.content.isEmpty()) {
+            return null;
+        }
+
+        String suggestions = extractTextFromContent(response.content);
+        String[] lines = suggestions.split("\n");
+        List<String> validSuggestions = new ArrayList<>();
 
-                return validSuggestions.toArray(new String[0]);
+        for (String line : lines) {
+            String cleaned = line.trim()
+                    .replaceAll("^[0-9]+[.)\\-]\\s*", "")
+                    .replaceAll("^[•\\-*]\\s*", "");
+            if (!cleaned.isEmpty() && validSuggestions.size() < 3) {
+                validSuggestions.add(cleaned);
             }
-        } catch (Exception e) {
-            LOG.errorf(e, "Erro ao gerar sugestões: %s", e.getMessage());
         }
 
+        return validSuggestions.toArray(new String[0]);
+    }
+
+    private String[] suggestionsFallback(Throwable e, String therapyType) {
+        if (e instanceof CircuitBreakerOpenException) {
+            LOG.debugf("%s; sugestões padrão", e.getMessage());
+        } else {
+            LOG.errorf(e, "Erro ao gerar sugestões: %s", e.getMessage());
+        }
+        claudeMetrics.recordFallback(CallKind.SUGGESTIONS);
         return getDefaultSuggestions(therapyType);
     }
 
@@ -252,4 +682,19 @@ public class ClaudeService {
             };
         };
     }
+
+    /**
+     * Requisição pronta para a resposta principal, ou a resposta já servida pelo cache
+     */
+    private static final class PreparedResponse {
+        final ClaudeDTO.MessageRequest request;
+        final String cached;
+        final boolean firstTurn;
+
+        PreparedResponse(ClaudeDTO.MessageRequest request, String cached, boolean firstTurn) {
+            this.request = request;
+            this.cached = cached;
+            this.firstTurn = firstTurn;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package org.acme.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.acme.cache.TtlLruCache;
+import org.acme.entity.ConversationSummary;
+import org.acme.entity.ConversationTurn;
+import org.acme.entity.Message;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Resumo incremental por sessão. A cada K turnos, os turnos que já saíram da janela crua
+ * do prompt são incorporados ao resumo em background; o buildMessages envia o resumo no
+ * lugar deles, mantendo o tamanho do prompt praticamente constante em sessões longas.
+ * Entre dois resumos, todo turno posterior ao coberto vai cru no prompt (até K turnos além
+ * da janela, limitados pelo orçamento de tokens), para que nenhum fique de fora dos dois.
+ */
+@ApplicationScoped
+public class ConversationSummaryService {
+
+    private static final Logger LOG = Logger.getLogger(ConversationSummaryService.class);
+
+    @Inject
+    ClaudeService claudeService;
+
+    // Pool de workers ou virtual threads, conforme chat.execution.mode
+    @Inject
+    @Named("blockingExecutor")
+    Executor blockingExecutor;
+
+    @ConfigProperty(name = "chat.summary.enabled", defaultValue = "false")
+    Boolean enabled;
+
+    @ConfigProperty(name = "chat.summary.every-turns", defaultValue = "5")
+    Integer everyTurns;
+
+    @ConfigProperty(name = "claude.history.turns", defaultValue = "5")
+    Integer windowTurns;
+
+    @ConfigProperty(name = "chat.history-cache.max-sessions", defaultValue = "10000")
+    Integer maxSessions;
+
+    @ConfigProperty(name = "chat.history-cache.ttl-minutes", defaultValue = "30")
+    Integer ttlMinutes;
+
+    // Summary.NONE representa sessão sem resumo, para não consultar o banco de novo
+    private TtlLruCache<String, Summary> cache;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        cache = new TtlLruCache<>("conversation-summary", maxSessions, Duration.ofMinutes(ttlMinutes));
+    }
+
+    /**
+     * Resumo atual da sessão ou null se não houver
+     */
+    public Summary getSummary(String sessionId) {
+        if (!enabled) {
+            return null;
+        }
+        Summary summary = cache.get(sessionId);
+        if (summary == null) {
+            ConversationSummary entity = ConversationSummary.findBySessionId(sessionId);
+            summary = entity != null && entity.summary != null
+                    ? new Summary(entity.summary, entity.coveredUntil)
+                    : Summary.NONE;
+            cache.put(sessionId, summary);
+        }
+        return summary == Summary.NONE ? null : summary;
+    }
+
+    /**
+     * Chamado após cada turno persistido; a verificação e o resumo rodam fora da requisição
+     */
+    public void onTurnPersisted(String sessionId) {
+        if (enabled) {
+            blockingExecutor.execute(() -> refreshIfDue(sessionId));
+        }
+    }
+
+    public TtlLruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private void refreshIfDue(String sessionId) {
+        // Evita dois resumos simultâneos da mesma sessão
+        if (!refreshing.add(sessionId)) {
+            return;
+        }
+        try {
+            long turns = QuarkusTransaction.requiringNew().call(() -> Message.countBySessionId(sessionId));
+            ConversationSummary existing = QuarkusTransaction.requiringNew()
+                    .call(() -> ConversationSummary.findBySessionId(sessionId));
+            // Conta os turnos desde o último resumo, e não turns % everyTurns: um turno cuja
+            // verificação foi pulada (resumo em andamento, erro) não adia o resumo por K turnos
+            int covered = existing != null && existing.turnsCovered != null ? existing.turnsCovered : 0;
+            if (turns - (covered + windowTurns) >= everyTurns) {
+                refresh(sessionId, existing);
+            }
+        } catch (Exception e) {
+            LOG.errorf(e, "Erro ao atualizar resumo da sessão %s: %s", sessionId, e.getMessage());
+        } finally {
+            refreshing.remove(sessionId);
+        }
+    }
+
+    private void refresh(String sessionId, ConversationSummary existing) {
+        LocalDateTime after = existing != null ? existing.coveredUntil : null;
+        List<ConversationTurn> pending = QuarkusTransaction.requiringNew()
+                .call(() -> Message.findTurnsAfter(sessionId, after));
+
+        // Os últimos turnos continuam indo crus no prompt
+        int toSummarize = pending.size() - windowTurns;
+        if (toSummarize <= 0) {
+            return;
+        }
+        List<ConversationTurn> turns = pending.subList(0, toSummarize);
+
+        String summary = claudeService.summarizeConversation(existing != null ? existing.summary : null, turns);
+        if (summary == null) {
+            return;
+        }
+
+        LocalDateTime coveredUntil = turns.get(turns.size() - 1).createdAt;
+        int covered = (existing != null && existing.turnsCovered != null ? existing.turnsCovered : 0) + turns.size();
+        QuarkusTransaction.requiringNew().run(() -> {
+            ConversationSummary entity = ConversationSummary.findBySessionId(sessionId);
+            if (entity == null) {
+                entity = new ConversationSummary();
+                entity.sessionId = sessionId;
+            }
+            entity.summary = summary;
+            entity.coveredUntil = coveredUntil;
+            entity.turnsCovered = covered;
+            entity.persist();
+        });
+        cache.put(sessionId, new Summary(summary, coveredUntil));
+
+        LOG.infof("Resumo da sessão %s atualizado (%d turnos resumidos)", sessionId, covered);
+    }
+
+    /**
+     * Texto do resumo e data do último turno incorporado a ele
+     */
+    public static final class Summary {
+        static final Summary NONE = new Summary(null, null);
+
+        public final String text;
+        public final LocalDateTime coveredUntil;
+
+        Summary(String text, LocalDateTime coveredUntil) {
+            this.text = text;
+            this.coveredUntil = coveredUntil;
+        }
+
+        /**
+         * Turnos do histórico que o resumo ainda não cobre, na mesma ordem
+         */
+        public List<ConversationTurn> uncovered(List<ConversationTurn> history) {
+            if (coveredUntil == null) {
+                return history;
+            }
+            int first = 0;
+            while (first < history.size() && !history.get(first).createdAt.isAfter(coveredUntil)) {
+                first++;
+            }
+            return history.subList(first, history.size());
+        }
+    }
+}
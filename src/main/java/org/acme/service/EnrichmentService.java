@@ -0,0 +1,150 @@
+package org.acme.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import org.acme.dto.ChatDTO;
+import org.acme.entity.Message;
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.component.seda.SedaEndpoint;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enriquecimento assíncrono das mensagens (sentimento e sugestões) através de uma fila
+ * SEDA limitada: a resposta do bot volta imediatamente e o registro em Message é atualizado depois.
+ */
+@ApplicationScoped
+public class EnrichmentService {
+
+    private static final Logger LOG = Logger.getLogger(EnrichmentService.class);
+
+    /**
+     * Mesmo URI para produtor e consumidor, para que ambos usem a mesma fila
+     */
+    public static final String ENDPOINT = "seda:analyzeConversation"
+            + "?size={{chat.enrichment.queue-size}}"
+            + "&concurrentConsumers={{chat.enrichment.workers}}"
+            + "&blockWhenFull=true"
+            + "&offerTimeout={{chat.enrichment.offer-timeout-ms}}";
+
+    @Inject
+    ClaudeService claudeService;
+
+    @Inject
+    ProducerTemplate producerTemplate;
+
+    @Inject
+    CamelContext camelContext;
+
+    @ConfigProperty(name = "chat.enrichment.async", defaultValue = "false")
+    Boolean async;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+
+    public static class EnrichmentTask {
+        public Long messageId;
+        public String userMessage;
+        public String therapyType;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Coloca a mensagem na fila. Com a fila cheia o produtor espera até offerTimeout;
+     * se ainda assim não houver espaço, o enriquecimento é descartado (load shedding):
+     * rodá-lo na requisição somaria duas chamadas ao Claude justamente quando o sistema
+     * está sobrecarregado. A mensagem fica sem sentimento e sugestões e recebe enrichedAt,
+     * para que {@link #getEnrichment} responda "unavailable" em vez de "pending" para sempre.
+     */
+    public void enqueue(Message message) {
+        EnrichmentTask task = new EnrichmentTask();
+        task.messageId = message.id;
+        task.userMessage = message.userMessage;
+        task.therapyType = message.therapyType;
+
+        try {
+            producerTemplate.sendBody(ENDPOINT, task);
+            enqueued.incrementAndGet();
+        } catch (Exception e) {
+            shed.incrementAndGet();
+            LOG.warnf("Fila de enriquecimento cheia, enriquecimento da mensagem %d descartado", message.id);
+            markUnavailable(task.messageId);
+        }
+    }
+
+    /**
+     * Calcula sentimento e sugestões e atualiza o registro persistido
+     */
+    public void enrich(EnrichmentTask task) {
+        String sentiment = claudeService.analyzeSentiment(task.userMessage);
+        String[] suggestions = claudeService.generateSuggestions(task.userMessage, task.therapyType);
+
+        QuarkusTransaction.requiringNew().run(() ->
+                Message.update("sentiment = ?1, suggestions = ?2, enrichedAt = ?3 where id = ?4",
+                        sentiment, String.join("\n", suggestions), LocalDateTime.now(), task.messageId));
+
+        processed.incrementAndGet();
+        LOG.debugf("Mensagem %d enriquecida", task.messageId);
+    }
+
+    /**
+     * Estado terminal de um enriquecimento descartado: enrichedAt sem sentimento
+     */
+    private void markUnavailable(Long messageId) {
+        try {
+            QuarkusTransaction.requiringNew().run(() ->
+                    Message.update("enrichedAt = ?1 where id = ?2", LocalDateTime.now(), messageId));
+        } catch (Exception e) {
+            LOG.errorf(e, "Erro ao marcar enriquecimento descartado da mensagem %d: %s", messageId, e.getMessage());
+        }
+    }
+
+    @ActivateRequestContext
+    public ChatDTO.EnrichmentResponse getEnrichment(Long messageId) {
+        Message message = Message.findById(messageId);
+        if (message == null) {
+            return null;
+        }
+
+        ChatDTO.EnrichmentResponse response = new ChatDTO.EnrichmentResponse();
+        response.messageId = message.id;
+        response.status = status(message);
+        response.sentiment = message.sentiment;
+        response.suggestions = message.suggestions != null ? message.suggestions.split("\n") : null;
+        return response;
+    }
+
+    /**
+     * done: sentimento gravado (enriquecido ou calculado na requisição);
+     * unavailable: enriquecimento descartado com a fila cheia; pending: ainda na fila
+     */
+    static String status(Message message) {
+        if (message.sentiment != null) {
+            return "done";
+        }
+        return message.enrichedAt != null ? "unavailable" : "pending";
+    }
+
+    public ChatDTO.EnrichmentStats getStats() {
+        SedaEndpoint endpoint = camelContext.getEndpoint(ENDPOINT, SedaEndpoint.class);
+
+        ChatDTO.EnrichmentStats stats = new ChatDTO.EnrichmentStats();
+        stats.queueSize = endpoint.getCurrentQueueSize();
+        stats.queueCapacity = endpoint.getSize();
+        stats.workers = endpoint.getConcurrentConsumers();
+        stats.enqueued = enqueued.get();
+        stats.processed = processed.get();
+        stats.shed = shed.get();
+        return stats;
+    }
+}
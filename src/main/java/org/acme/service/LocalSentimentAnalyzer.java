@@ -0,0 +1,177 @@
+package org.acme.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.util.TextNormalizer;
+
+/**
+ * Classificador de sentimento em português baseado em léxico, executado em processo.
+ * O texto é percorrido uma única vez sobre uma trie de palavras sem acento, tratando
+ * negação ("não estou bem"), intensificadores ("muito cansado") e contraste ("mas").
+ */
+@ApplicationScoped
+public class LocalSentimentAnalyzer {
+
+    private static final byte POLARITY = 1;
+    private static final byte NEGATION = 2;
+    private static final byte MODIFIER = 3;
+    private static final byte CONTRAST = 4;
+
+    // Quantos tokens seguintes uma negação alcança
+    private static final int NEGATION_WINDOW = 3;
+    private static final double NEGATION_FACTOR = -0.8;
+    private static final double LABEL_THRESHOLD = 0.5;
+    // Sem vocabulário emocional o texto tende a ser uma pergunta informativa
+    private static final double NO_EVIDENCE_CONFIDENCE = 0.6;
+
+    private final Node root = new Node();
+
+    public LocalSentimentAnalyzer() {
+        polarity(2.0, "feliz", "felicidade", "otimo", "otima", "maravilhoso", "maravilhosa", "excelente",
+                "incrivel", "adorei", "amei", "amo", "grato", "grata", "gratidao", "aliviado", "aliviada");
+        polarity(1.0, "bem", "bom", "boa", "alegre", "alegria", "tranquilo", "tranquila", "calmo", "calma",
+                "obrigado", "obrigada", "gosto", "gostei", "melhor", "melhorando", "melhorou", "alivio",
+                "animado", "animada", "paz", "equilibrio", "equilibrado", "equilibrada", "legal", "satisfeito",
+                "satisfeita", "disposto", "disposta", "esperanca", "confiante", "relaxado", "relaxada", "leve",
+                "contente", "positivo", "positiva", "energizado", "energizada", "sereno", "serena");
+        polarity(-2.0, "deprimido", "deprimida", "depressao", "desespero", "desesperado", "desesperada",
+                "panico", "horrivel", "pessimo", "pessima", "odeio", "angustia", "angustiado", "angustiada",
+                "sofrendo", "sofrimento", "exausto", "exausta");
+        polarity(-1.0, "triste", "tristeza", "ansioso", "ansiosa", "ansiedade", "estresse", "estressado",
+                "estressada", "cansado", "cansada", "cansaco", "dor", "dores", "doente", "mal", "ruim", "medo",
+                "preocupado", "preocupada", "preocupacao", "raiva", "irritado", "irritada", "sozinho", "sozinha",
+                "solidao", "insonia", "nervoso", "nervosa", "frustrado", "frustrada", "desanimado", "desanimada",
+                "chorar", "chorando", "choro", "pior", "piorou", "inseguro", "insegura", "culpa", "vazio",
+                "vazia", "perdido", "perdida", "tenso", "tensa", "tensao", "enjoo", "agitado", "agitada");
+
+        entry(NEGATION, 0, "nao", "nunca", "jamais", "nem", "nenhum", "nenhuma", "sem");
+        entry(CONTRAST, 0, "mas", "porem", "contudo", "entretanto", "todavia");
+
+        entry(MODIFIER, 2.0, "extremamente", "absurdamente");
+        entry(MODIFIER, 1.6, "totalmente", "completamente", "demais");
+        entry(MODIFIER, 1.5, "muito", "muita", "muitos", "muitas", "super", "mega");
+        entry(MODIFIER, 1.3, "bastante", "tao", "tanto", "tanta");
+        entry(MODIFIER, 0.6, "meio", "pouco", "levemente", "ligeiramente");
+    }
+
+    /**
+     * Resultado da classificação: rótulo, pontuação acumulada e confiança em [0, 1]
+     */
+    public static class Result {
+        public final String label;
+        public final double score;
+        public final double confidence;
+
+        Result(String label, double score, double confidence) {
+            this.label = label;
+            this.score = score;
+            this.confidence = confidence;
+        }
+    }
+
+    public Result analyze(String text) {
+        if (text == null || text.isEmpty()) {
+            return new Result("neutro", 0, NO_EVIDENCE_CONFIDENCE);
+        }
+
+        double score = 0;
+        double evidence = 0;
+        double modifier = 1.0;
+        int negationLeft = 0;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            // Pula separadores
+            while (i < length && !isLetter(TextNormalizer.fold(text.charAt(i)))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+
+            // Percorre a trie enquanto lê o token
+            Node node = root;
+            while (i < length) {
+                char c = TextNormalizer.fold(text.charAt(i));
+                if (!isLetter(c)) {
+                    break;
+                }
+                node = node != null ? node.next[c - 'a'] : null;
+                i++;
+            }
+
+            if (node == null || node.kind == 0) {
+                // A negação alcança alguns tokens ("não estou bem"); o intensificador só o seguinte
+                if (negationLeft > 0) {
+                    negationLeft--;
+                }
+                modifier = 1.0;
+                continue;
+            }
+
+            switch (node.kind) {
+                case NEGATION -> negationLeft = NEGATION_WINDOW;
+                case MODIFIER -> modifier *= node.weight;
+                case CONTRAST -> {
+                    // O que vem depois do "mas" costuma prevalecer
+                    score *= 0.5;
+                    evidence *= 0.5;
+                    negationLeft = 0;
+                    modifier = 1.0;
+                }
+                case POLARITY -> {
+                    double value = node.weight * modifier;
+                    if (negationLeft > 0) {
+                        value *= NEGATION_FACTOR;
+                        negationLeft = 0;
+                    }
+                    score += value;
+                    evidence += Math.abs(value);
+                    modifier = 1.0;
+                }
+                default -> {
+                }
+            }
+        }
+
+        if (evidence == 0) {
+            return new Result("neutro", 0, NO_EVIDENCE_CONFIDENCE);
+        }
+
+        // Sinais opostos se cancelam e derrubam a confiança
+        double confidence = Math.min(1.0, Math.abs(score) / (evidence + 0.5));
+        String label = score >= LABEL_THRESHOLD ? "positivo"
+                : score <= -LABEL_THRESHOLD ? "negativo"
+                : "neutro";
+        return new Result(label, score, confidence);
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private void polarity(double weight, String... words) {
+        entry(POLARITY, weight, words);
+    }
+
+    private void entry(byte kind, double weight, String... words) {
+        for (String word : words) {
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                int index = word.charAt(i) - 'a';
+                if (node.next[index] == null) {
+                    node.next[index] = new Node();
+                }
+                node = node.next[index];
+            }
+            node.kind = kind;
+            node.weight = weight;
+        }
+    }
+
+    private static final class Node {
+        final Node[] next = new Node[26];
+        byte kind;
+        double weight;
+    }
+}
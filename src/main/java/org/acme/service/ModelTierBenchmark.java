@@ -0,0 +1,162 @@
+package org.acme.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.client.CallKind;
+import org.acme.client.ClaudeGateway;
+import org.acme.dto.BenchmarkDTO;
+import org.acme.dto.ClaudeDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Modo benchmark dos tiers de modelo: roda os mesmos prompts de sentimento e sugestões do
+ * ClaudeService em cada modelo de claude.tier.benchmark.models e compara qualidade e
+ * latência. Vai direto ao ClaudeGateway (sem roteador, caches ou hedging) para medir só o
+ * modelo; as chamadas também aparecem em claude.request com a tag do modelo.
+ */
+@ApplicationScoped
+public class ModelTierBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(ModelTierBenchmark.class);
+
+    // Textos com o sentimento esperado
+    private static final String[][] SENTIMENT_SAMPLES = {
+            {"Depois das sessões de acupuntura finalmente consigo dormir bem, estou muito feliz!", "positivo"},
+            {"A aromaterapia com lavanda me deixou bem mais calma antes das provas.", "positivo"},
+            {"Adorei as dicas de alimentação ayurvédica, já sinto mais disposição.", "positivo"},
+            {"Estou exausta, a ansiedade piorou e nada parece funcionar.", "negativo"},
+            {"Fiquei frustrado, gastei dinheiro com tratamento e a dor continua igual.", "negativo"},
+            {"Tenho medo de agulhas e isso me deixa muito nervosa.", "negativo"},
+            {"Quais óleos essenciais são usados na aromaterapia?", "neutro"},
+            {"Quanto tempo dura uma sessão de acupuntura?", "neutro"},
+    };
+
+    // Contexto e tipo de terapia para as sugestões
+    private static final String[][] SUGGESTION_SAMPLES = {
+            {"Como descobrir meu dosha?", "ayurveda"},
+            {"Acupuntura ajuda com dor nas costas?", "acupuntura"},
+            {"Quais óleos ajudam a dormir melhor?", "aromaterapia"},
+            {"Quero começar a cuidar da saúde de forma mais natural", "geral"},
+    };
+
+    private static final int MAX_SUGGESTION_WORDS = 10;
+
+    @Inject
+    ClaudeService claudeService;
+
+    @Inject
+    ClaudeGateway claudeGateway;
+
+    @ConfigProperty(name = "claude.tier.benchmark.enabled", defaultValue = "false")
+    Boolean enabled;
+
+    @ConfigProperty(name = "claude.tier.benchmark.models",
+            defaultValue = "claude-3-5-haiku-20241022,claude-sonnet-4-20250514")
+    List<String> models;
+
+    @ConfigProperty(name = "claude.tier.benchmark.repetitions", defaultValue = "3")
+    Integer repetitions;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Executa o benchmark de forma sequencial, para que as latências não se afetem
+     */
+    public BenchmarkDTO.TierBenchmarkResponse run() {
+        List<BenchmarkDTO.TierResult> results = new ArrayList<>();
+        for (String model : models) {
+            results.add(measure(model, "sentiment", CallKind.SENTIMENT, SENTIMENT_SAMPLES,
+                    sample -> claudeService.sentimentRequest(sample[0]),
+                    (sample, response) -> sample[1].equals(claudeService.readSentiment(response))));
+            results.add(measure(model, "suggestions", CallKind.SUGGESTIONS, SUGGESTION_SAMPLES,
+                    sample -> claudeService.suggestionsRequest(sample[0], sample[1]),
+                    (sample, response) -> isWellFormed(claudeService.parseSuggestions(response))));
+        }
+
+        BenchmarkDTO.TierBenchmarkResponse response = new BenchmarkDTO.TierBenchmarkResponse();
+        response.repetitions = repetitions;
+        response.results = results;
+        return response;
+    }
+
+    private BenchmarkDTO.TierResult measure(String model, String task, CallKind kind, String[][] samples,
+                                            Function<String[], ClaudeDTO.MessageRequest> requestFor,
+                                            Grader grader) {
+        List<Long> latencies = new ArrayList<>();
+        int errors = 0;
+        int good = 0;
+        long outputTokens = 0;
+
+        for (int i = 0; i < repetitions; i++) {
+            for (String[] sample : samples) {
+                ClaudeDTO.MessageRequest request = requestFor.apply(sample);
+                request.model = model;
+                long start = System.nanoTime();
+                try {
+                    ClaudeDTO.MessageResponse response = claudeGateway.createMessage(kind, request)
+                            .await().indefinitely();
+                    latencies.add((System.nanoTime() - start) / 1_000_000L);
+                    if (grader.grade(sample, response)) {
+                        good++;
+                    }
+                    if (response.usage != null && response.usage.outputTokens != null) {
+                        outputTokens += response.usage.outputTokens;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                    LOG.warnf("Benchmark %s em %s falhou: %s", task, model, e.getMessage());
+                }
+            }
+        }
+
+        BenchmarkDTO.TierResult result = new BenchmarkDTO.TierResult();
+        result.model = model;
+        result.task = task;
+        result.calls = repetitions * samples.length;
+        result.errors = errors;
+        int answered = latencies.size();
+        result.quality = answered == 0 ? 0.0 : (double) good / answered;
+        result.avgOutputTokens = answered == 0 ? 0.0 : (double) outputTokens / answered;
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        result.latencyP50Ms = percentile(sorted, 0.5);
+        result.latencyP95Ms = percentile(sorted, 0.95);
+        result.latencyAvgMs = answered == 0 ? 0 : (long) Arrays.stream(sorted).average().orElse(0);
+
+        LOG.infof("Benchmark %s em %s: qualidade %.2f, p50 %d ms, p95 %d ms (%d erros)",
+                task, model, result.quality, result.latencyP50Ms, result.latencyP95Ms, errors);
+        return result;
+    }
+
+    private static boolean isWellFormed(String[] suggestions) {
+        if (suggestions == null || suggestions.length != 3) {
+            return false;
+        }
+        for (String suggestion : suggestions) {
+            if (suggestion.split("\\s+").length > MAX_SUGGESTION_WORDS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @FunctionalInterface
+    private interface Grader {
+        boolean grade(String[] sample, ClaudeDTO.MessageResponse response);
+    }
+}
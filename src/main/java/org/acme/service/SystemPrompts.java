@@ -0,0 +1,186 @@
+package org.acme.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.dto.ClaudeDTO;
+import org.acme.util.TokenEstimator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * System prompts pré-calculados por tipo de terapia na inicialização. Com o prompt caching
+ * habilitado eles são enviados como blocos com cache_control, para que o prefixo estático
+ * seja servido do cache da Anthropic em vez de reprocessado a cada chamada. A API só guarda
+ * prefixos a partir de um tamanho mínimo por modelo; abaixo dele o ponto de cache não é
+ * marcado (a estimativa de tokens é aproximada e o modelo pode mudar no hedging, então a
+ * verificação é uma economia, não uma garantia).
+ * Os system prompts atuais ficam bem abaixo de 1024 tokens: hoje nenhum deles é cacheado e
+ * vão sempre como texto simples. Só o ponto no histórico (claude.prompt-cache.history)
+ * chega ao mínimo, em sessões longas.
+ */
+@ApplicationScoped
+public class SystemPrompts {
+
+    static final List<String> THERAPY_TYPES = List.of(
+            "geral", "ayurveda", "acupuntura", "aromaterapia", "reiki", "meditacao", "yoga", "fitoterapia");
+
+    static final String COMBINED_INSTRUCTIONS = "\n\nFORMATO DE SAÍDA:\n" +
+            "Responda SOMENTE com um objeto JSON válido, sem texto fora dele, com os campos:\n" +
+            "• \"reply\": sua resposta ao usuário seguindo as diretrizes acima\n" +
+            "• \"sentiment\": sentimento da última mensagem do usuário: positivo, negativo ou neutro\n" +
+            "• \"suggestions\": lista com exatamente 3 perguntas curtas (máximo 10 palavras cada) " +
+            "que o usuário pode fazer para aprofundar o tema";
+
+    // Menor prefixo que a API aceita em cache: 1024 tokens na maioria dos modelos, 2048 nos Haiku
+    private static final int MIN_CACHEABLE_TOKENS = 1024;
+    private static final int MIN_CACHEABLE_TOKENS_HAIKU = 2048;
+
+    @ConfigProperty(name = "claude.prompt-cache.enabled", defaultValue = "true")
+    Boolean promptCacheEnabled;
+
+    private Map<String, Prompt> responsePrompts;
+    private Map<String, Prompt> combinedPrompts;
+
+    @PostConstruct
+    void init() {
+        Map<String, Prompt> response = new HashMap<>();
+        Map<String, Prompt> combined = new HashMap<>();
+        for (String therapyType : THERAPY_TYPES) {
+            String prompt = buildSystemPrompt(therapyType);
+            response.put(therapyType, new Prompt(prompt));
+            combined.put(therapyType, new Prompt(prompt + COMBINED_INSTRUCTIONS));
+        }
+        responsePrompts = Map.copyOf(response);
+        combinedPrompts = Map.copyOf(combined);
+    }
+
+    /**
+     * System prompt da resposta principal: String ou List<ContentBlock>, conforme o prompt caching
+     */
+    public Object response(String therapyType, String model) {
+        return toSystem(lookup(responsePrompts, therapyType), model);
+    }
+
+    /**
+     * System prompt do modo combinado (resposta + instruções de saída JSON)
+     */
+    public Object combined(String therapyType, String model) {
+        return toSystem(lookup(combinedPrompts, therapyType), model);
+    }
+
+    /**
+     * Marca o último turno do histórico como ponto de cache, para que system prompt e
+     * histórico anterior formem um prefixo reaproveitável na próxima mensagem da sessão
+     */
+    public void markCacheBreakpoint(ClaudeDTO.MessageRequest request) {
+        List<ClaudeDTO.Message> messages = request.messages;
+        if (!promptCacheEnabled || messages.size() < 2) {
+            return;
+        }
+        ClaudeDTO.Message lastHistory = messages.get(messages.size() - 2);
+        if (!(lastHistory.content instanceof String text)) {
+            return;
+        }
+
+        int prefixTokens = TokenEstimator.estimateContent(request.system);
+        for (int i = 0; i < messages.size() - 1; i++) {
+            prefixTokens += TokenEstimator.estimateContent(messages.get(i).content) + TokenEstimator.MESSAGE_OVERHEAD;
+        }
+        if (prefixTokens < minCacheableTokens(request.model)) {
+            return;
+        }
+
+        ClaudeDTO.ContentBlock block = new ClaudeDTO.ContentBlock(text);
+        block.cacheControl = ClaudeDTO.CacheControl.ephemeral();
+        lastHistory.content = List.of(block);
+    }
+
+    /**
+     * Acrescenta contexto dinâmico (ex.: resumo da conversa) depois do prefixo estático,
+     * sem mexer no bloco marcado para cache
+     */
+    public Object withContext(Object system, String context) {
+        if (system instanceof List<?> blocks) {
+            List<Object> extended = new ArrayList<>(blocks);
+            extended.add(new ClaudeDTO.ContentBlock(context));
+            return extended;
+        }
+        return system + "\n\n" + context;
+    }
+
+    static int minCacheableTokens(String model) {
+        return model != null && model.contains("haiku") ? MIN_CACHEABLE_TOKENS_HAIKU : MIN_CACHEABLE_TOKENS;
+    }
+
+    private Prompt lookup(Map<String, Prompt> prompts, String therapyType) {
+        Prompt prompt = therapyType != null ? prompts.get(therapyType.toLowerCase()) : null;
+        if (prompt == null) {
+            prompt = prompts.get("geral");
+        }
+        return prompt;
+    }
+
+    private Object toSystem(Prompt prompt, String model) {
+        if (!promptCacheEnabled || prompt.tokens < minCacheableTokens(model)) {
+            return prompt.text;
+        }
+        return prompt.cached;
+    }
+
+    static String buildSystemPrompt(String therapyType) {
+        StringBuilder prompt = new StringBuilder();
+
+        prompt.append("Você é um assistente virtual especializado em Terapias Integrativas e Medicina Complementar. ");
+        prompt.append("Seu objetivo é ajudar, orientar e educar sobre práticas terapêuticas de forma acolhedora, empática e baseada em evidências.\n\n");
+
+        prompt.append("DIRETRIZES IMPORTANTES:\n");
+        prompt.append("• Seja empático, acolhedor e respeitoso com as experiências e crenças do usuário\n");
+        prompt.append("• Forneça informações baseadas em evidências científicas quando disponível\n");
+        prompt.append("• NUNCA substitua diagnóstico, prescrição ou tratamento médico profissional\n");
+        prompt.append("• Sempre incentive consulta com profissionais qualificados e regulamentados\n");
+        prompt.append("• Mantenha respostas concisas e objetivas (máximo 3-4 parágrafos)\n");
+        prompt.append("• Use linguagem clara, acessível e livre de jargões desnecessários\n");
+        prompt.append("• Respeite todas as tradições terapêuticas sem preconceitos\n");
+        prompt.append("• Em caso de sintomas graves, oriente busca imediata por atendimento médico\n");
+        prompt.append("• Seja honesto sobre limitações e incertezas do conhecimento\n\n");
+        prompt.append("• Evite responder à perguntas que saiam do contexto fornecido, a não ser que seja possível usar a resposta para direcionar novamente ao contexto\n\n");
+
+        // ... (resto do switch case permanece igual)
+
+        switch (therapyType != null ? therapyType.toLowerCase() : "geral") {
+            case "ayurveda":
+                prompt.append("FOCO ATUAL: Ayurveda\n");
+                prompt.append("Sistema medicinal milenar da Índia que busca equilíbrio através dos doshas (Vata, Pitta, Kapha), ");
+                prompt.append("alimentação adequada ao biotipo, rotinas diárias (dinacharya), estações (ritucharya) e práticas de autocuidado.\n");
+                prompt.append("Aborde: constituição individual, desequilíbrios, alimentação, ervas ayurvédicas, yoga e meditação.");
+                break;
+            // ... (demais cases)
+            default:
+                prompt.append("FOCO ATUAL: Terapias Integrativas em Geral\n");
+                prompt.append("Abordagem holística da saúde que integra práticas complementares à medicina convencional.");
+        }
+
+        return prompt.toString();
+    }
+
+    /**
+     * Texto do prompt com a estimativa de tokens e a versão marcada para cache
+     */
+    private static final class Prompt {
+        final String text;
+        final int tokens;
+        final List<ClaudeDTO.ContentBlock> cached;
+
+        Prompt(String text) {
+            this.text = text;
+            this.tokens = TokenEstimator.estimate(text);
+            ClaudeDTO.ContentBlock block = new ClaudeDTO.ContentBlock(text);
+            block.cacheControl = ClaudeDTO.CacheControl.ephemeral();
+            this.cached = List.of(block);
+        }
+    }
+}
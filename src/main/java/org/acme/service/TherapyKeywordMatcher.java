@@ -0,0 +1,205 @@
+package org.acme.service;
+
+import org.acme.util.TextNormalizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Detecta a terapia de uma mensagem com um autômato Aho-Corasick pré-compilado sobre as
+ * palavras-chave sem acento. A mensagem é percorrida uma única vez, qualquer que seja o
+ * tamanho do dicionário; cada palavra-chave só casa com palavras inteiras (aceitando o
+ * plural com "s") e soma pontos para sua terapia. Palavras compartilhadas, como "energia",
+ * dividem o peso entre as terapias; empates ficam com a terapia declarada primeiro.
+ */
+public final class TherapyKeywordMatcher {
+
+    // a-z e um separador: pontuação e espaços viram um único separador
+    private static final int ALPHABET = 27;
+    private static final int SEPARATOR = 26;
+
+    private final String[] therapies;
+
+    // Transições completas (goto + falha já resolvidas): uma consulta de array por caractere
+    private int[][] transitions;
+    // Terapias e pesos que terminam em cada estado, incluindo os herdados pelos links de falha
+    private int[][] outputTherapies;
+    private double[][] outputWeights;
+
+    /**
+     * @param keywords palavras-chave por terapia, na ordem de prioridade para desempate
+     * @param nameWeight peso do próprio nome da terapia quando citado na mensagem
+     */
+    public TherapyKeywordMatcher(Map<String, String[]> keywords, double nameWeight) {
+        therapies = keywords.keySet().toArray(new String[0]);
+
+        // Quantas terapias usam cada palavra, para dividir o peso das ambíguas
+        Map<String, Integer> shared = new HashMap<>();
+        for (String[] words : keywords.values()) {
+            for (String word : words) {
+                shared.merge(symbols(word), 1, Integer::sum);
+            }
+        }
+
+        List<int[]> gotos = new ArrayList<>();
+        List<Map<Integer, Double>> outputs = new ArrayList<>();
+        gotos.add(newState());
+        outputs.add(new HashMap<>());
+
+        for (int t = 0; t < therapies.length; t++) {
+            for (String word : keywords.get(therapies[t])) {
+                String folded = symbols(word);
+                double weight = 1.0 / shared.get(folded);
+                add(gotos, outputs, folded, t, weight);
+            }
+            add(gotos, outputs, symbols(therapies[t]), t, nameWeight);
+        }
+
+        compile(gotos, outputs);
+    }
+
+    /**
+     * Terapia com maior pontuação na mensagem, ou {@code defaultTherapy} se nada casar
+     */
+    public String bestMatch(String message, String defaultTherapy) {
+        if (message == null || message.isEmpty()) {
+            return defaultTherapy;
+        }
+        double[] scores = score(message);
+        int best = -1;
+        for (int t = 0; t < scores.length; t++) {
+            if (scores[t] > 0 && (best < 0 || scores[t] > scores[best])) {
+                best = t;
+            }
+        }
+        return best < 0 ? defaultTherapy : therapies[best];
+    }
+
+    /**
+     * Pontuação de cada terapia, na ordem do mapa recebido no construtor
+     */
+    double[] score(String message) {
+        double[] scores = new double[therapies.length];
+        // Separadores virtuais no início e no fim marcam os limites de palavra das bordas
+        int state = transitions[0][SEPARATOR];
+        boolean lastWasSeparator = true;
+        int length = message.length();
+        for (int i = 0; i <= length; i++) {
+            int symbol = i < length ? symbol(TextNormalizer.fold(message.charAt(i))) : SEPARATOR;
+            if (symbol == SEPARATOR && lastWasSeparator) {
+                continue;
+            }
+            lastWasSeparator = symbol == SEPARATOR;
+            state = transitions[state][symbol];
+            int[] matched = outputTherapies[state];
+            for (int m = 0; m < matched.length; m++) {
+                scores[matched[m]] += outputWeights[state][m];
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Registra " palavra " e " palavras ": os separadores nas pontas exigem palavra inteira
+     */
+    private static void add(List<int[]> gotos, List<Map<Integer, Double>> outputs, String folded,
+                            int therapy, double weight) {
+        insert(gotos, outputs, " " + folded + " ", therapy, weight);
+        if (!folded.endsWith("s")) {
+            insert(gotos, outputs, " " + folded + "s ", therapy, weight);
+        }
+    }
+
+    private static void insert(List<int[]> gotos, List<Map<Integer, Double>> outputs, String pattern,
+                               int therapy, double weight) {
+        int state = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            int symbol = symbol(pattern.charAt(i));
+            if (gotos.get(state)[symbol] < 0) {
+                gotos.get(state)[symbol] = gotos.size();
+                gotos.add(newState());
+                outputs.add(new HashMap<>());
+            }
+            state = gotos.get(state)[symbol];
+        }
+        outputs.get(state).merge(therapy, weight, Math::max);
+    }
+
+    /**
+     * Calcula os links de falha em largura e os embute nas transições
+     */
+    private void compile(List<int[]> gotos, List<Map<Integer, Double>> outputs) {
+        int size = gotos.size();
+        transitions = new int[size][];
+        int[] fail = new int[size];
+        List<Map<Integer, Double>> merged = new ArrayList<>(outputs);
+
+        Queue<Integer> queue = new ArrayDeque<>();
+        transitions[0] = gotos.get(0).clone();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = transitions[0][symbol];
+            if (child < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            transitions[state] = gotos.get(state).clone();
+            Map<Integer, Double> inherited = merged.get(fail[state]);
+            if (!inherited.isEmpty()) {
+                Map<Integer, Double> combined = new HashMap<>(merged.get(state));
+                inherited.forEach((therapy, weight) -> combined.merge(therapy, weight, Math::max));
+                merged.set(state, combined);
+            }
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[state][symbol];
+                if (child < 0) {
+                    transitions[state][symbol] = transitions[fail[state]][symbol];
+                } else {
+                    fail[child] = transitions[fail[state]][symbol];
+                    queue.add(child);
+                }
+            }
+        }
+
+        outputTherapies = new int[size][];
+        outputWeights = new double[size][];
+        for (int state = 0; state < size; state++) {
+            Map<Integer, Double> output = merged.get(state);
+            outputTherapies[state] = new int[output.size()];
+            outputWeights[state] = new double[output.size()];
+            int m = 0;
+            for (Map.Entry<Integer, Double> entry : output.entrySet()) {
+                outputTherapies[state][m] = entry.getKey();
+                outputWeights[state][m] = entry.getValue();
+                m++;
+            }
+        }
+    }
+
+    private static int[] newState() {
+        int[] next = new int[ALPHABET];
+        Arrays.fill(next, -1);
+        return next;
+    }
+
+    /**
+     * Forma dobrada da palavra-chave: sem acento, separadores colapsados
+     */
+    private static String symbols(String word) {
+        return TextNormalizer.normalize(word);
+    }
+
+    private static int symbol(char folded) {
+        return folded >= 'a' && folded <= 'z' ? folded - 'a' : SEPARATOR;
+    }
+}
@@ -1,15 +1,25 @@
 package org.acme.service;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import jakarta.inject.Named;
+import org.acme.cache.ConversationWindowCache;
 import org.acme.dto.ChatDTO;
+import org.acme.entity.ConversationTurn;
 import org.acme.entity.Message;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 @ApplicationScoped
 public class TherapyService {
@@ -19,7 +29,8 @@ public class TherapyService {
     @Inject
     ClaudeService claudeService;  // Mudado de OpenAIService para ClaudeService
 
-    private static final Map<String, String[]> THERAPY_KEYWORDS = new HashMap<>();
+    // Ordem de declaração desempata terapias com a mesma pontuação
+    private static final Map<String, String[]> THERAPY_KEYWORDS = new LinkedHashMap<>();
 
     static {
         THERAPY_KEYWORDS.put("ayurveda", new String[]{"dosha", "vata", "pitta", "kapha", "ayurvédica", "equilíbrio"});
@@ -31,71 +42,175 @@ public class TherapyService {
         THERAPY_KEYWORDS.put("fitoterapia", new String[]{"planta", "chá", "erva", "fitoterápico"});
     }
 
-    @Transactional
-    public ChatDTO.ChatResponse processMessage(ChatDTO.ChatRequest request) {
+    // Citar o nome da terapia vale mais que uma palavra-chave isolada
+    private static final TherapyKeywordMatcher THERAPY_MATCHER = new TherapyKeywordMatcher(THERAPY_KEYWORDS, 2.0);
+
+    @Inject
+    EnrichmentService enrichmentService;
+
+    @Inject
+    ConversationWindowCache conversationWindowCache;
+
+    @Inject
+    ConversationSummaryService conversationSummaryService;
+
+    // Pool de workers ou virtual threads, conforme chat.execution.mode
+    @Inject
+    @Named("blockingExecutor")
+    Executor blockingExecutor;
+
+    @ConfigProperty(name = "claude.combined.enabled", defaultValue = "false")
+    Boolean combinedEnabled;
+
+    /**
+     * Processa a mensagem do chat para a rota direct:processMessage. As chamadas ao
+     * Claude não ocupam thread enquanto o modelo responde (resposta, sentimento e
+     * sugestões correm juntos); só leitura de histórico e persistência vão para o pool
+     * de workers.
+     */
+    public CompletionStage<ChatDTO.ChatResponse> processMessageAsync(ChatDTO.ChatRequest request) {
         LOG.infof("Processando mensagem da sessão: %s", request.sessionId);
 
-        try {
-            // Identifica o tipo de terapia se não foi especificado
-            String therapyType = request.therapyType;
-            if (therapyType == null || therapyType.isEmpty()) {
-                therapyType = detectTherapyType(request.message);
-                LOG.infof("Terapia detectada: %s", therapyType);
-            }
-
-            // Gera resposta usando Claude
-            String botResponse = claudeService.generateResponse(
-                    request.message,
-                    therapyType,
-                    request.sessionId
-            );
-
-            // Analisa o sentimento da mensagem do usuário
-            String sentiment = claudeService.analyzeSentiment(request.message);
-
-            // Salva no banco
-            Message message = new Message();
-            message.sessionId = request.sessionId;
-            message.userMessage = request.message;
-            message.botResponse = botResponse;
-            message.therapyType = therapyType;
-            message.sentiment = sentiment;
-            message.persist();
-
-            LOG.infof("Mensagem salva com ID: %d", message.id);
-
-            // Gera sugestões contextuais
-            String[] suggestions = claudeService.generateSuggestions(request.message, therapyType);
-
-            // Prepara resposta
-            ChatDTO.ChatResponse response = new ChatDTO.ChatResponse();
-            response.sessionId = request.sessionId;
-            response.message = botResponse;
-            response.therapyType = therapyType;
-            response.sentiment = sentiment;
-            response.suggestions = suggestions;
-            response.timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-
-            return response;
-
-        } catch (Exception e) {
-            LOG.errorf(e, "Erro ao processar mensagem: %s", e.getMessage());
-            throw new RuntimeException("Erro ao processar mensagem", e);
+        String therapyType = request.therapyType;
+        if (therapyType == null || therapyType.isEmpty()) {
+            therapyType = detectTherapyType(request.message);
+            LOG.infof("Terapia detectada: %s", therapyType);
+        }
+        final String detectedTherapy = therapyType;
+
+        Uni<ChatDTO.ChatResponse> combined = combinedEnabled
+                ? claudeService.generateCombinedAsync(request.message, detectedTherapy, request.sessionId)
+                : Uni.createFrom().nullItem();
+
+        return combined
+                .chain(reply -> {
+                    if (reply != null) {
+                        return onWorker(() -> {
+                            Message saved = saveMessage(request.sessionId, request.message, reply.message,
+                                    detectedTherapy, reply.sentiment);
+                            reply.messageId = saved.id;
+                            reply.timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                            return reply;
+                        });
+                    }
+                    if (combinedEnabled) {
+                        LOG.info("Modo combinado falhou, usando chamadas separadas");
+                    }
+                    return separateCallsAsync(request, detectedTherapy);
+                })
+                .onFailure().transform(e -> {
+                    LOG.errorf(e, "Erro ao processar mensagem: %s", e.getMessage());
+                    return new RuntimeException("Erro ao processar mensagem", e);
+                })
+                .subscribeAsCompletionStage();
+    }
+
+    private Uni<ChatDTO.ChatResponse> separateCallsAsync(ChatDTO.ChatRequest request, String therapyType) {
+        Uni<String> botResponse = claudeService.generateResponseAsync(
+                request.message, therapyType, request.sessionId);
+
+        if (enrichmentService.isAsync()) {
+            return botResponse.chain(reply -> onWorker(() -> {
+                Message message = saveMessage(request.sessionId, request.message, reply, therapyType, null);
+                enrichmentService.enqueue(message);
+                return toResponse(request, therapyType, message, null, null);
+            }));
         }
+
+        return Uni.combine().all().unis(
+                        botResponse,
+                        claudeService.analyzeSentimentAsync(request.message),
+                        claudeService.generateSuggestionsAsync(request.message, therapyType))
+                .asTuple()
+                .chain(results -> onWorker(() -> {
+                    Message message = saveMessage(request.sessionId, request.message, results.getItem1(),
+                            therapyType, results.getItem2());
+                    return toResponse(request, therapyType, message, results.getItem2(), results.getItem3());
+                }));
+    }
+
+    private ChatDTO.ChatResponse toResponse(ChatDTO.ChatRequest request, String therapyType, Message message,
+                                            String sentiment, String[] suggestions) {
+        ChatDTO.ChatResponse response = new ChatDTO.ChatResponse();
+        response.sessionId = request.sessionId;
+        response.messageId = message.id;
+        response.message = message.botResponse;
+        response.therapyType = therapyType;
+        response.sentiment = sentiment;
+        response.suggestions = suggestions;
+        response.timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return response;
+    }
+
+    /**
+     * Persistência fora da thread que completou a chamada ao Claude (event loop),
+     * no pool de workers ou numa virtual thread
+     */
+    private <T> Uni<T> onWorker(Supplier<T> work) {
+        return Uni.createFrom().item(work).runSubscriptionOn(blockingExecutor);
     }
 
-    private String detectTherapyType(String message) {
-        String lowerMessage = message.toLowerCase();
+    /**
+     * Versão em streaming do processMessageAsync: repassa os tokens da resposta conforme
+     * chegam e persiste a resposta completa quando o stream termina. Se o stream falha ou
+     * o cliente desconecta, nada é salvo: uma resposta cortada no histórico voltaria para
+     * o modelo nos próximos turnos como se fosse completa.
+     */
+    public Multi<String> streamMessage(ChatDTO.ChatRequest request) {
+        LOG.infof("Processando mensagem (stream) da sessão: %s", request.sessionId);
 
-        for (Map.Entry<String, String[]> entry : THERAPY_KEYWORDS.entrySet()) {
-            for (String keyword : entry.getValue()) {
-                if (lowerMessage.contains(keyword)) {
-                    return entry.getKey();
-                }
-            }
+        String therapyType = request.therapyType;
+        if (therapyType == null || therapyType.isEmpty()) {
+            therapyType = detectTherapyType(request.message);
+            LOG.infof("Terapia detectada: %s", therapyType);
         }
+        final String detectedTherapy = therapyType;
+
+        CompletableFuture<String> sentimentFuture = claudeService.analyzeSentimentAsync(request.message)
+                .subscribeAsCompletionStage();
+
+        StringBuilder assembled = new StringBuilder();
+        return claudeService.streamResponse(request.message, detectedTherapy, request.sessionId)
+                .invoke(assembled::append)
+                .onFailure().invoke(e -> LOG.errorf(e, "Erro no stream da sessão %s: %s",
+                        request.sessionId, e.getMessage()))
+                .onTermination().invoke((failure, cancelled) -> {
+                    if (failure != null || cancelled) {
+                        sentimentFuture.cancel(false);
+                        LOG.infof("Stream da sessão %s interrompido; resposta parcial descartada", request.sessionId);
+                        return;
+                    }
+                    sentimentFuture
+                            .thenAcceptAsync(sentiment -> saveMessage(request.sessionId, request.message,
+                                    assembled.toString(), detectedTherapy, sentiment), blockingExecutor)
+                            .exceptionally(e -> {
+                                LOG.errorf(e, "Erro ao salvar resposta do stream da sessão %s: %s",
+                                        request.sessionId, e.getMessage());
+                                return null;
+                            });
+                });
+    }
+
+    private Message saveMessage(String sessionId, String userMessage, String botResponse,
+                                String therapyType, String sentiment) {
+        Message message = new Message();
+        message.sessionId = sessionId;
+        message.userMessage = userMessage;
+        message.botResponse = botResponse;
+        message.therapyType = therapyType;
+        message.sentiment = sentiment;
+        QuarkusTransaction.requiringNew().run(message::persist);
+
+        LOG.infof("Mensagem salva com ID: %d", message.id);
+
+        conversationWindowCache.append(sessionId,
+                new ConversationTurn(message.userMessage, message.botResponse, message.createdAt));
+        conversationSummaryService.onTurnPersisted(sessionId);
+        return message;
+    }
 
-        return "geral";
+    String detectTherapyType(String message) {
+        return THERAPY_MATCHER.bestMatch(message, "geral");
     }
 
     public List<ChatDTO.TherapyInfo> getAvailableTherapies() {
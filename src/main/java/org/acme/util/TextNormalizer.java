@@ -0,0 +1,76 @@
+package org.acme.util;
+
+/**
+ * Utilitários de normalização de texto em português (minúsculas e remoção de acentos)
+ * sem passar por java.text.Normalizer, que aloca bastante para textos curtos.
+ */
+public final class TextNormalizer {
+
+    private static final char[] LATIN1_FOLD = new char[256];
+
+    static {
+        for (char c = 0; c < 256; c++) {
+            LATIN1_FOLD[c] = Character.toLowerCase(c);
+        }
+        map("ÀÁÂÃÄÅàáâãäå", 'a');
+        map("ÈÉÊËèéêë", 'e');
+        map("ÌÍÎÏìíîï", 'i');
+        map("ÒÓÔÕÖòóôõö", 'o');
+        map("ÙÚÛÜùúûü", 'u');
+        map("Çç", 'c');
+        map("Ññ", 'n');
+        map("Ýýÿ", 'y');
+    }
+
+    private TextNormalizer() {
+    }
+
+    private static void map(String chars, char target) {
+        for (int i = 0; i < chars.length(); i++) {
+            LATIN1_FOLD[chars.charAt(i)] = target;
+        }
+    }
+
+    /**
+     * Converte um caractere para minúsculo sem acento (ex.: 'Ç' -> 'c', 'ã' -> 'a')
+     */
+    public static char fold(char c) {
+        return c < 256 ? LATIN1_FOLD[c] : Character.toLowerCase(c);
+    }
+
+    /**
+     * Aplica {@link #fold(char)} em todo o texto, preservando o tamanho
+     */
+    public static char[] foldToArray(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return folded;
+    }
+
+    /**
+     * Forma canônica para chaves de cache: minúsculas, sem acentos, com pontuação e
+     * espaços colapsados em um único espaço (ex.: "Como descobrir  meu Dosha?!" -> "como descobrir meu dosha")
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+}
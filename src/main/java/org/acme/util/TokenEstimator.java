@@ -0,0 +1,100 @@
+package org.acme.util;
+
+import org.acme.dto.ClaudeDTO;
+
+import java.util.List;
+
+/**
+ * Estimativa barata de tokens para texto em português, sem tokenizador real.
+ * Calibrada para ficar levemente acima da contagem da API: palavras comuns saem por
+ * volta de 4 caracteres por token, acentos e pontuação costumam virar tokens próprios.
+ */
+public final class TokenEstimator {
+
+    // Custo fixo de cada mensagem (papel e delimitadores)
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    private static final double ASCII_ALNUM = 0.25;
+    private static final double ACCENTED = 0.6;
+    private static final double PUNCTUATION = 0.5;
+    private static final double OTHER = 1.0;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        double tokens = 0;
+        for (int i = 0; i < text.length(); i++) {
+            tokens += cost(text.charAt(i));
+        }
+        return (int) Math.ceil(tokens);
+    }
+
+    /**
+     * Tokens de entrada de uma requisição: system prompt e mensagens com seu overhead
+     */
+    public static int estimate(ClaudeDTO.MessageRequest request) {
+        int tokens = estimateContent(request.system);
+        if (request.messages != null) {
+            for (ClaudeDTO.Message message : request.messages) {
+                tokens += estimateContent(message.content) + MESSAGE_OVERHEAD;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Conteúdo da Messages API: String ou lista de blocos de texto
+     */
+    public static int estimateContent(Object content) {
+        if (content instanceof String text) {
+            return estimate(text);
+        }
+        int tokens = 0;
+        if (content instanceof List<?> blocks) {
+            for (Object block : blocks) {
+                if (block instanceof ClaudeDTO.ContentBlock contentBlock) {
+                    tokens += estimate(contentBlock.text);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Corta o texto no maior prefixo que cabe em {@code maxTokens}, marcando o corte com "[...]"
+     */
+    public static String truncate(String text, int maxTokens) {
+        if (text == null || estimate(text) <= maxTokens) {
+            return text;
+        }
+        double budget = maxTokens - 2; // espaço para o marcador
+        double tokens = 0;
+        int end = 0;
+        while (end < text.length()) {
+            double next = tokens + cost(text.charAt(end));
+            if (next > budget) {
+                break;
+            }
+            tokens = next;
+            end++;
+        }
+        return end == 0 ? "" : text.substring(0, end).stripTrailing() + " [...]";
+    }
+
+    private static double cost(char c) {
+        if (c < 128) {
+            if (Character.isLetterOrDigit(c)) {
+                return ASCII_ALNUM;
+            }
+            return Character.isWhitespace(c) ? 0 : PUNCTUATION;
+        }
+        if (Character.isLetter(c)) {
+            return ACCENTED;
+        }
+        return OTHER;
+    }
+}
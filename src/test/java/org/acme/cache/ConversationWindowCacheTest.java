@@ -0,0 +1,82 @@
+package org.acme.cache;
+
+import org.acme.entity.ConversationTurn;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConversationWindowCacheTest {
+
+    private ConversationWindowCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ConversationWindowCache();
+        cache.enabled = true;
+        cache.maxSessions = 100;
+        cache.maxMemoryMb = 1;
+        cache.ttlMinutes = 30;
+        cache.historyTurns = 2;
+        cache.summaryEnabled = false;
+        cache.summaryEveryTurns = 5;
+        cache.init();
+    }
+
+    @Test
+    void appendKeepsOnlyLastTurns() {
+        cache.put("s1", cache.stamp("s1"), List.of(turn("1"), turn("2")));
+
+        cache.append("s1", turn("3"));
+
+        List<ConversationTurn> window = cache.get("s1");
+        assertEquals(2, window.size());
+        assertEquals("2", window.get(0).userMessage);
+        assertEquals("3", window.get(1).userMessage);
+    }
+
+    @Test
+    void appendIgnoresSessionsNotInCache() {
+        cache.append("s1", turn("1"));
+
+        assertNull(cache.get("s1"));
+    }
+
+    @Test
+    void readStartedBeforeAppendIsNotCached() {
+        long stamp = cache.stamp("s1");
+        // Outro request persiste um turno enquanto esta leitura consulta o banco
+        cache.append("s1", turn("2"));
+
+        cache.put("s1", stamp, List.of(turn("1")));
+
+        assertNull(cache.get("s1"));
+    }
+
+    @Test
+    void putDoesNotReplaceCachedWindow() {
+        cache.put("s1", cache.stamp("s1"), List.of(turn("1")));
+        cache.append("s1", turn("2"));
+
+        cache.put("s1", cache.stamp("s1"), List.of(turn("1")));
+
+        assertEquals(2, cache.get("s1").size());
+    }
+
+    @Test
+    void windowKeepsTurnsAwaitingSummary() {
+        cache.summaryEnabled = true;
+        cache.summaryEveryTurns = 3;
+        cache.init();
+
+        assertEquals(5, cache.windowSize());
+    }
+
+    private static ConversationTurn turn(String userMessage) {
+        return new ConversationTurn(userMessage, "resposta " + userMessage, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,124 @@
+package org.acme.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TtlLruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1L, cache.stats().evictions);
+    }
+
+    @Test
+    void evictsByWeight() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, 5, Duration.ofMinutes(1), String::length);
+        cache.put("a", "abc");
+        cache.put("b", "de");
+
+        cache.put("c", "f");
+
+        assertNull(cache.get("a"));
+        assertEquals(3L, cache.stats().weight);
+    }
+
+    @Test
+    void expiredEntriesAreMisses() throws InterruptedException {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, Duration.ofMillis(20));
+        cache.put("a", "1");
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("a"));
+        TtlLruCache.Stats stats = cache.stats();
+        assertEquals(0, stats.size);
+        assertEquals(1L, stats.misses);
+    }
+
+    @Test
+    void unusableEntryCountsAsMissWithoutRemoval() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+
+        assertNull(cache.get("a", value -> false));
+        assertEquals("1", cache.get("a"));
+        assertEquals(1L, cache.stats().misses);
+        assertEquals(1L, cache.stats().hits);
+    }
+
+    @Test
+    void putIfAbsentKeepsExistingEntry() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1));
+
+        assertNull(cache.putIfAbsent("a", "1"));
+        assertEquals("1", cache.putIfAbsent("a", "2"));
+        assertEquals("1", cache.get("a"));
+    }
+
+    @Test
+    void putIfAbsentReplacesExpiredEntry() throws InterruptedException {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, Duration.ofMillis(20));
+        cache.put("a", "1");
+        Thread.sleep(40);
+
+        assertNull(cache.putIfAbsent("a", "2"));
+        assertEquals("2", cache.get("a"));
+    }
+
+    @Test
+    void computeIfPresentIgnoresMissingKey() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1));
+
+        assertNull(cache.computeIfPresent("a", value -> value + "!"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void computeIfPresentKeepsOriginalDeadline() throws InterruptedException {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, Duration.ofMillis(200));
+        cache.put("a", "1");
+        Thread.sleep(120);
+
+        assertEquals("12", cache.computeIfPresent("a", value -> value + "2"));
+        Thread.sleep(120);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void computeIfPresentCanRefreshDeadline() throws InterruptedException {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, Duration.ofMillis(200));
+        cache.put("a", "1");
+        Thread.sleep(120);
+
+        assertEquals("12", cache.computeIfPresent("a", value -> value + "2", true));
+        Thread.sleep(120);
+
+        assertEquals("12", cache.get("a"));
+    }
+
+    @Test
+    void invalidateRemovesEntryAndWeight() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>("test", 10, 100, Duration.ofMinutes(1), String::length);
+        cache.put("a", "abc");
+
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+        assertEquals(0L, cache.stats().weight);
+    }
+}
@@ -0,0 +1,144 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final String PROVIDER = "claude";
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter();
+        limiter.registry = new SimpleMeterRegistry();
+        limiter.enabled = true;
+        limiter.initialLimit = 1;
+        limiter.minLimit = 1;
+        limiter.maxLimit = 1;
+        limiter.maxQueue = 10;
+        limiter.latencyTolerance = 2.5;
+        limiter.backoffRatio = 0.7;
+        limiter.interactiveMaxWaitMs = 200L;
+        limiter.backgroundMaxWaitMs = 50L;
+    }
+
+    @Test
+    void cancelledQueuedAcquireDoesNotLeakPermit() {
+        limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture().join();
+        CompletableFuture<Void> queued = limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture();
+        assertFalse(queued.isDone());
+
+        queued.cancel(false);
+        limiter.release(PROVIDER, CallKind.RESPONSE, 1_000_000L, false);
+
+        assertEquals(0, limiter.inFlight(PROVIDER));
+        // A permissão volta a estar disponível imediatamente
+        assertTrue(limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture().isDone());
+        assertEquals(1, limiter.inFlight(PROVIDER));
+    }
+
+    @Test
+    void releaseHandsPermitToQueuedAcquire() {
+        limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture().join();
+        CompletableFuture<Void> queued = limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture();
+
+        limiter.release(PROVIDER, CallKind.RESPONSE, 1_000_000L, false);
+
+        assertTrue(queued.isDone());
+        assertFalse(queued.isCompletedExceptionally());
+        assertEquals(1, limiter.inFlight(PROVIDER));
+    }
+
+    @Test
+    void queuedAcquireFailsAfterDeadline() {
+        limiter.acquireAsync(PROVIDER, CallKind.SUMMARY).toCompletableFuture().join();
+        CompletableFuture<Void> queued = limiter.acquireAsync(PROVIDER, CallKind.SUMMARY).toCompletableFuture();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(LimiterRejectedException.class, failure.getCause());
+
+        limiter.release(PROVIDER, CallKind.RESPONSE, 1_000_000L, false);
+        assertEquals(0, limiter.inFlight(PROVIDER));
+    }
+
+    @Test
+    void interactiveCallsAreServedBeforeBackground() {
+        limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture().join();
+        CompletableFuture<Void> background = limiter.acquireAsync(PROVIDER, CallKind.SUMMARY).toCompletableFuture();
+        CompletableFuture<Void> interactive = limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture();
+
+        limiter.release(PROVIDER, CallKind.RESPONSE, 1_000_000L, false);
+
+        assertTrue(interactive.isDone());
+        assertFalse(background.isDone());
+    }
+
+    @Test
+    void providersHaveIndependentLimits() {
+        limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture().join();
+
+        CompletableFuture<Void> other = limiter.acquireAsync("openai", CallKind.RESPONSE).toCompletableFuture();
+
+        assertTrue(other.isDone());
+        assertEquals(1, limiter.inFlight(PROVIDER));
+        assertEquals(1, limiter.inFlight("openai"));
+    }
+
+    @Test
+    void shortCallsDoNotMakeLongRepliesLookSlow() {
+        limiter.maxLimit = 64;
+        for (int i = 0; i < 20; i++) {
+            call(CallKind.SENTIMENT, 100);
+        }
+        double before = limit();
+
+        call(CallKind.RESPONSE, 3000);
+
+        assertTrue(limit() > before, "resposta de 3 s não deveria contar como lenta: " + limit());
+    }
+
+    @Test
+    void replyMuchSlowerThanOtherRepliesShrinksLimit() {
+        limiter.maxLimit = 64;
+        call(CallKind.SENTIMENT, 100);
+        call(CallKind.RESPONSE, 3000);
+        double before = limit();
+
+        call(CallKind.RESPONSE, 10000);
+
+        assertTrue(limit() < before, "resposta 3x mais lenta que a base deveria reduzir o limite: " + limit());
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() {
+        limiter.maxQueue = 1;
+        limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture().join();
+        limiter.acquireAsync(PROVIDER, CallKind.RESPONSE);
+
+        CompletableFuture<Void> rejected = limiter.acquireAsync(PROVIDER, CallKind.RESPONSE).toCompletableFuture();
+
+        assertTrue(rejected.isCompletedExceptionally());
+    }
+
+    private void call(CallKind kind, long latencyMs) {
+        limiter.acquireAsync(PROVIDER, kind).toCompletableFuture().join();
+        limiter.release(PROVIDER, kind, latencyMs * 1_000_000L, false);
+    }
+
+    private double limit() {
+        return limiter.registry.get("claude.limiter.limit").tag("provider", PROVIDER).gauge().value();
+    }
+}
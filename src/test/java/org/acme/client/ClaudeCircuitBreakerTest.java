@@ -0,0 +1,139 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClaudeCircuitBreakerTest {
+
+    private static final String PROVIDER = "claude";
+    private static final CallKind KIND = CallKind.RESPONSE;
+
+    private ClaudeCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new ClaudeCircuitBreaker();
+        circuitBreaker.registry = new SimpleMeterRegistry();
+        circuitBreaker.enabled = true;
+        circuitBreaker.config = new SmallRyeConfigBuilder()
+                .withDefaultValues(Map.of(
+                        "claude.circuit-breaker.window", "4",
+                        "claude.circuit-breaker.min-calls", "4",
+                        "claude.circuit-breaker.failure-ratio", "0.5",
+                        "claude.circuit-breaker.open-ms", "50",
+                        "claude.circuit-breaker.openai.open-ms", "60000"))
+                .build();
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(3);
+
+        assertDoesNotThrow(() -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    @Test
+    void opensWhenFailureRatioIsReached() {
+        succeed(2);
+        fail(2);
+
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    @Test
+    void halfOpenLetsSingleProbeThrough() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+
+        assertDoesNotThrow(() -> circuitBreaker.acquire(PROVIDER, KIND));
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    @Test
+    void successfulProbeClosesCircuit() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+        circuitBreaker.acquire(PROVIDER, KIND);
+
+        circuitBreaker.onSuccess(PROVIDER, KIND);
+
+        assertDoesNotThrow(() -> circuitBreaker.acquire(PROVIDER, KIND));
+        assertDoesNotThrow(() -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    @Test
+    void failedProbeReopensCircuit() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+        circuitBreaker.acquire(PROVIDER, KIND);
+
+        circuitBreaker.onFailure(PROVIDER, KIND, new WebApplicationException(529));
+
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    @Test
+    void abandonedProbeFreesTheProbeSlot() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+        circuitBreaker.acquire(PROVIDER, KIND);
+
+        circuitBreaker.onAbandon(PROVIDER, KIND);
+
+        assertDoesNotThrow(() -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    @Test
+    void clientErrorsAndLimiterRejectionsDoNotOpenCircuit() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(PROVIDER, KIND, new WebApplicationException(400));
+            circuitBreaker.onFailure(PROVIDER, KIND, new LimiterRejectedException("fila cheia"));
+        }
+
+        assertDoesNotThrow(() -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    @Test
+    void circuitsAreIndependentPerProviderAndKind() {
+        open();
+
+        assertDoesNotThrow(() -> circuitBreaker.acquire(PROVIDER, CallKind.SENTIMENT));
+        assertDoesNotThrow(() -> circuitBreaker.acquire("openai", KIND));
+    }
+
+    @Test
+    void providerOverrideApplies() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure("openai", KIND, new WebApplicationException(503));
+        }
+        Thread.sleep(80);
+
+        // openai.open-ms=60000: continua aberto depois do open-ms padrão
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.acquire("openai", KIND));
+    }
+
+    private void open() {
+        fail(4);
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.acquire(PROVIDER, KIND));
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.onSuccess(PROVIDER, KIND);
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.onFailure(PROVIDER, KIND, new WebApplicationException(529));
+        }
+    }
+}
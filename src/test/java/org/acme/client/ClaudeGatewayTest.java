@@ -0,0 +1,180 @@
+package org.acme.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.TimeoutException;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import org.acme.dto.ClaudeDTO;
+import org.acme.metrics.ClaudeMetrics;
+import org.eclipse.microprofile.config.Config;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaudeGatewayTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private MeterRegistry registry;
+    private SilentClient client;
+    private ClaudeGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        Config config = new SmallRyeConfigBuilder()
+                .withDefaultValues(Map.of(
+                        "claude.tier.sentiment.timeout-ms", "50",
+                        "claude.circuit-breaker.window", "2",
+                        "claude.circuit-breaker.min-calls", "2",
+                        "claude.circuit-breaker.open-ms", "60000"))
+                .build();
+
+        gateway = new ClaudeGateway();
+        client = new SilentClient();
+        gateway.claudeClient = client;
+        gateway.metrics = new NoopMetrics();
+        gateway.limiter = limiter(registry);
+        gateway.pacer = new RateLimitPacer();
+        gateway.pacer.enabled = false;
+        gateway.retryPolicy = new ClaudeRetryPolicy();
+        gateway.retryPolicy.maxRetries = 3;
+        gateway.retryPolicy.baseDelayMs = 10L;
+        gateway.retryPolicy.maxDelayMs = 100L;
+        gateway.retryPolicy.maxDurationMs = 1000L;
+        gateway.circuitBreaker = circuitBreaker(registry, config);
+        gateway.modelTiers = modelTiers(config);
+        gateway.objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void timeoutsOpenTheCircuit() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(TimeoutException.class, () -> call(CallKind.SENTIMENT));
+        }
+
+        assertThrows(CircuitBreakerOpenException.class, () -> call(CallKind.SENTIMENT));
+        assertEquals(1.0, registry.counter("claude.circuit.transitions",
+                "provider", "claude", "kind", "sentiment", "to", "open").count());
+    }
+
+    @Test
+    void timeoutReleasesPermitAsOverload() {
+        assertThrows(TimeoutException.class, () -> call(CallKind.SENTIMENT));
+
+        assertEquals(0, gateway.limiter.inFlight("claude"));
+        double limit = registry.get("claude.limiter.limit").tag("provider", "claude").gauge().value();
+        assertTrue(limit < 8, "limite deveria cair após o timeout: " + limit);
+    }
+
+    @Test
+    void errorEventMidStreamFailsTheStream() {
+        client.stream = Multi.createFrom().items(
+                "{\"type\":\"content_block_delta\",\"index\":0,\"delta\":{\"type\":\"text_delta\",\"text\":\"Olá\"}}",
+                "{\"type\":\"error\",\"error\":{\"type\":\"overloaded_error\",\"message\":\"Overloaded\"}}");
+
+        WebApplicationException error = assertThrows(WebApplicationException.class, () -> stream(CallKind.RESPONSE));
+
+        assertEquals(529, error.getResponse().getStatus());
+        assertEquals(0, gateway.limiter.inFlight("claude"));
+        assertThrows(WebApplicationException.class, () -> stream(CallKind.RESPONSE));
+        assertThrows(CircuitBreakerOpenException.class, () -> stream(CallKind.RESPONSE));
+    }
+
+    @Test
+    void completeStreamIsDelivered() {
+        client.stream = Multi.createFrom().items("{\"type\":\"message_start\"}", "{\"type\":\"message_stop\"}");
+
+        assertEquals(2, stream(CallKind.RESPONSE).size());
+    }
+
+    private List<String> stream(CallKind kind) {
+        return gateway.streamMessage(kind, new ClaudeDTO.MessageRequest()).collect().asList().await().atMost(TIMEOUT);
+    }
+
+    private ClaudeDTO.MessageResponse call(CallKind kind) {
+        return gateway.createMessage(kind, new ClaudeDTO.MessageRequest()).await().atMost(TIMEOUT);
+    }
+
+    static AdaptiveConcurrencyLimiter limiter(MeterRegistry registry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter();
+        limiter.registry = registry;
+        limiter.enabled = true;
+        limiter.initialLimit = 8;
+        limiter.minLimit = 1;
+        limiter.maxLimit = 64;
+        limiter.maxQueue = 10;
+        limiter.latencyTolerance = 2.5;
+        limiter.backoffRatio = 0.7;
+        limiter.interactiveMaxWaitMs = 200L;
+        limiter.backgroundMaxWaitMs = 200L;
+        return limiter;
+    }
+
+    static ClaudeCircuitBreaker circuitBreaker(MeterRegistry registry, Config config) {
+        ClaudeCircuitBreaker circuitBreaker = new ClaudeCircuitBreaker();
+        circuitBreaker.registry = registry;
+        circuitBreaker.config = config;
+        circuitBreaker.enabled = true;
+        return circuitBreaker;
+    }
+
+    static ModelTiers modelTiers(Config config) {
+        ModelTiers modelTiers = new ModelTiers();
+        modelTiers.config = config;
+        modelTiers.model = "claude-sonnet-4-20250514";
+        modelTiers.maxTokens = 1024;
+        modelTiers.temperature = 0.7;
+        modelTiers.smallModel = "claude-3-5-haiku-20241022";
+        modelTiers.summaryMaxTokens = 300;
+        modelTiers.init();
+        return modelTiers;
+    }
+
+    /**
+     * Provedor que aceita a conexão e nunca responde; o stream pode ser trocado por teste
+     */
+    static class SilentClient implements ClaudeClient {
+        Multi<String> stream = Multi.createFrom().nothing();
+
+        @Override
+        public Uni<RestResponse<ClaudeDTO.MessageResponse>> createMessage(ClaudeDTO.MessageRequest request) {
+            return Uni.createFrom().nothing();
+        }
+
+        @Override
+        public Multi<String> streamMessage(ClaudeDTO.MessageRequest request) {
+            return stream;
+        }
+    }
+
+    static class NoopMetrics extends ClaudeMetrics {
+        @Override
+        public void recordCall(CallKind kind, String model, long durationNanos, String outcome) {
+        }
+
+        @Override
+        public void recordUsage(CallKind kind, String model, ClaudeDTO.Usage usage) {
+        }
+
+        @Override
+        public void recordError(CallKind kind, Throwable error) {
+        }
+
+        @Override
+        public void recordRetry(CallKind kind, int status) {
+        }
+    }
+}
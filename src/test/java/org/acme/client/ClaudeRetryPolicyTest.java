@@ -0,0 +1,87 @@
+package org.acme.client;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaudeRetryPolicyTest {
+
+    private ClaudeRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        retryPolicy = new ClaudeRetryPolicy();
+        retryPolicy.maxRetries = 3;
+        retryPolicy.baseDelayMs = 500L;
+        retryPolicy.maxDelayMs = 8000L;
+        retryPolicy.maxDurationMs = 30000L;
+    }
+
+    @Test
+    void retryAfterTakesPrecedenceOverBackoff() {
+        Duration delay = retryPolicy.nextDelay(0, error(429, Map.of("retry-after", "2")), 0);
+
+        assertEquals(Duration.ofSeconds(2), delay);
+    }
+
+    @Test
+    void retryAfterLongerThanMaxDelayIsNotAwaited() {
+        assertNull(retryPolicy.nextDelay(0, error(429, Map.of("retry-after", "30")), 0));
+    }
+
+    @Test
+    void retryAfterBeyondMaxDurationIsNotAwaited() {
+        assertNull(retryPolicy.nextDelay(1, error(529, Map.of("retry-after", "5")), 26000));
+    }
+
+    @Test
+    void shouldRetryFalseStopsRetries() {
+        assertNull(retryPolicy.nextDelay(0, error(529, Map.of("x-should-retry", "false")), 0));
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        assertNull(retryPolicy.nextDelay(0, error(400, Map.of()), 0));
+        assertNull(retryPolicy.nextDelay(0, new IllegalStateException("sem resposta HTTP"), 0));
+    }
+
+    @Test
+    void stopsAfterMaxRetries() {
+        assertNotNull(retryPolicy.nextDelay(2, error(503, Map.of()), 0));
+        assertNull(retryPolicy.nextDelay(3, error(503, Map.of()), 0));
+    }
+
+    @Test
+    void backoffStaysWithinBounds() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long delay = retryPolicy.nextDelay(attempt, error(529, Map.of()), 0).toMillis();
+            assertTrue(delay >= 250 && delay <= Math.min(8000, 500L << attempt), "attempt " + attempt + ": " + delay);
+        }
+    }
+
+    @Test
+    void retryAfterAcceptsHttpDate() {
+        String date = ZonedDateTime.now().plusSeconds(3).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+
+        Duration delay = RateLimitPacer.retryAfter(Map.of("retry-after", date)::get);
+
+        assertTrue(delay.toMillis() > 1000 && delay.toMillis() <= 3000, "retry-after em data HTTP: " + delay);
+    }
+
+    private static WebApplicationException error(int status, Map<String, String> headers) {
+        Response.ResponseBuilder response = Response.status(status);
+        headers.forEach(response::header);
+        return new WebApplicationException(response.build());
+    }
+}
@@ -0,0 +1,154 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import org.acme.dto.ClaudeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LlmRouterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private SimpleMeterRegistry registry;
+    private StubProvider claude;
+    private StubProvider openai;
+    private LlmRouter router;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        claude = new StubProvider("claude");
+        openai = new StubProvider("openai");
+
+        router = new LlmRouter();
+        router.registry = registry;
+        router.config = new SmallRyeConfigBuilder()
+                .withDefaultValues(Map.of(
+                        "llm.router.providers", "claude,openai",
+                        "llm.router.min-samples", "3",
+                        "llm.router.max-error-rate", "0.2",
+                        "llm.router.explore-ratio", "0",
+                        "llm.router.recovery-ms", "60000"))
+                .build();
+        router.init(List.of(claude, openai));
+    }
+
+    @Test
+    void preferredProviderAnswersWhenHealthy() {
+        claude.answers.add(Uni.createFrom().item(response("claude")));
+
+        assertEquals("claude", call().id);
+        assertEquals(0, openai.calls);
+    }
+
+    @Test
+    void providerFailureFailsOverToNextProvider() {
+        claude.answers.add(Uni.createFrom().failure(new WebApplicationException(529)));
+        openai.answers.add(Uni.createFrom().item(response("openai")));
+
+        assertEquals("openai", call().id);
+        assertEquals(1.0, registry.counter("llm.router.failovers",
+                "kind", "response", "from", "claude", "to", "openai").count());
+    }
+
+    @Test
+    void openCircuitFailsOverToNextProvider() {
+        claude.answers.add(Uni.createFrom().failure(new CircuitBreakerOpenException("aberto")));
+        openai.answers.add(Uni.createFrom().item(response("openai")));
+
+        assertEquals("openai", call().id);
+    }
+
+    @Test
+    void lastFailureIsReportedWhenEveryProviderFails() {
+        WebApplicationException last = new WebApplicationException(503);
+        claude.answers.add(Uni.createFrom().failure(new WebApplicationException(529)));
+        openai.answers.add(Uni.createFrom().failure(last));
+
+        WebApplicationException thrown = assertThrows(WebApplicationException.class, this::call);
+        assertSame(last, thrown);
+    }
+
+    @Test
+    void clearlyFasterAlternateMovesToTheFront() {
+        for (int i = 0; i < 3; i++) {
+            claude.answers.add(delayed(response("claude"), 150));
+            call();
+            openai.answers.add(Uni.createFrom().item(response("openai")));
+            router.createMessageOnAlternate(CallKind.RESPONSE, new ClaudeDTO.MessageRequest()).await().atMost(TIMEOUT);
+        }
+
+        assertEquals("openai", router.candidates(CallKind.RESPONSE).get(0).provider.name());
+    }
+
+    @Test
+    void degradedProviderMovesToTheBack() {
+        // Três falhas seguidas levam a média móvel de erro a ~0,27, acima do máximo de 0,2
+        for (int i = 0; i < 3; i++) {
+            claude.answers.add(Uni.createFrom().failure(new WebApplicationException(529)));
+            openai.answers.add(Uni.createFrom().item(response("openai")));
+            call();
+        }
+
+        List<LlmRouter.Route> order = router.candidates(CallKind.RESPONSE);
+        assertEquals("openai", order.get(0).provider.name());
+        assertEquals("claude", order.get(1).provider.name());
+    }
+
+    private ClaudeDTO.MessageResponse call() {
+        return router.createMessageAsync(CallKind.RESPONSE, new ClaudeDTO.MessageRequest()).await().atMost(TIMEOUT);
+    }
+
+    private static Uni<ClaudeDTO.MessageResponse> delayed(ClaudeDTO.MessageResponse response, long delayMs) {
+        return Uni.createFrom().item(response).onItem().delayIt().by(Duration.ofMillis(delayMs));
+    }
+
+    private static ClaudeDTO.MessageResponse response(String id) {
+        ClaudeDTO.MessageResponse response = new ClaudeDTO.MessageResponse();
+        response.id = id;
+        return response;
+    }
+
+    /**
+     * Provedor local que devolve as respostas enfileiradas pelo teste, na ordem das chamadas
+     */
+    static class StubProvider implements LlmProvider {
+        final String name;
+        final Deque<Uni<ClaudeDTO.MessageResponse>> answers = new ArrayDeque<>();
+        int calls;
+
+        StubProvider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public synchronized Uni<ClaudeDTO.MessageResponse> createMessage(CallKind kind,
+                                                                         ClaudeDTO.MessageRequest request) {
+            calls++;
+            return answers.poll();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitPacerTest {
+
+    private static final int CALLERS = 5;
+
+    private SimpleMeterRegistry registry;
+    private RateLimitPacer pacer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        pacer = new RateLimitPacer();
+        pacer.registry = registry;
+        pacer.enabled = true;
+        pacer.threshold = 0.1;
+        pacer.backgroundThreshold = 0.25;
+        pacer.maxDelayMs = 60000L;
+        pacer.retrySpacingMs = 100L;
+        pacer.init();
+    }
+
+    @Test
+    void budgetAboveThresholdIsNotPaced() {
+        pacer.update(200, headers("requests", 100, 50, 10));
+
+        assertEquals(0, pacer.reserve(CallKind.RESPONSE, 10));
+    }
+
+    @Test
+    void concurrentReservationsAreSpreadUntilReset() throws Exception {
+        pacer.update(200, headers("requests", 100, 5, 10));
+
+        List<Long> delays = reserveConcurrently(CallKind.RESPONSE);
+
+        // Cada chamador fica com uma vaga própria, cerca de 10 s / 6 depois da anterior
+        for (int i = 1; i < delays.size(); i++) {
+            long gap = delays.get(i) - delays.get(i - 1);
+            assertTrue(gap >= 1500, "chamadas simultâneas deveriam sair espaçadas: " + delays);
+        }
+    }
+
+    @Test
+    void callersAfterRetryAfterDoNotWakeTogether() throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("retry-after", "1");
+        pacer.update(429, headers::get);
+
+        List<Long> delays = reserveConcurrently(CallKind.RESPONSE);
+
+        assertTrue(delays.get(0) > 800, "primeira vaga no fim do retry-after: " + delays);
+        // Folga para os milissegundos entre as reservas de cada thread
+        for (int i = 1; i < delays.size(); i++) {
+            assertTrue(delays.get(i) - delays.get(i - 1) >= 80, "vagas espaçadas após o 429: " + delays);
+        }
+    }
+
+    @Test
+    void reservationsConsumeTokenBudget() {
+        pacer.update(200, headers("tokens", 10000, 5000, 10));
+
+        pacer.reserve(CallKind.RESPONSE, 1200);
+        pacer.reserve(CallKind.RESPONSE, 800);
+
+        assertEquals(3000.0, registry.get("claude.ratelimit.remaining").tag("type", "tokens").gauge().value());
+    }
+
+    @Test
+    void largeRequestsWaitLongerWhenTokensAreScarce() {
+        pacer.update(200, headers("tokens", 10000, 500, 10));
+
+        long first = pacer.reserve(CallKind.RESPONSE, 250);
+        long second = pacer.reserve(CallKind.RESPONSE, 250);
+
+        assertEquals(0, first);
+        // 250 tokens de 750 (saldo + custo) da janela de 10 s: cerca de 3,3 s de intervalo
+        assertTrue(second > 3000 && second < 3500, "intervalo proporcional ao custo: " + second);
+    }
+
+    private List<Long> reserveConcurrently(CallKind kind) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Callable<Long>> callers = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                callers.add(() -> pacer.reserve(kind, 10));
+            }
+            List<Long> delays = new ArrayList<>();
+            for (Future<Long> delay : executor.invokeAll(callers)) {
+                delays.add(delay.get());
+            }
+            Collections.sort(delays);
+            return delays;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Function<String, String> headers(String type, long limit, long remaining, long resetSeconds) {
+        Map<String, String> headers = new HashMap<>();
+        String prefix = "anthropic-ratelimit-" + type + "-";
+        headers.put(prefix + "limit", String.valueOf(limit));
+        headers.put(prefix + "remaining", String.valueOf(remaining));
+        headers.put(prefix + "reset", Instant.now().plusSeconds(resetSeconds).atOffset(ZoneOffset.UTC).toString());
+        return headers::get;
+    }
+}
@@ -0,0 +1,125 @@
+package org.acme.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import org.acme.dto.ClaudeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestHedgerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private StubRouter router;
+    private SimpleMeterRegistry registry;
+    private RequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        hedger = newHedger(1.0);
+    }
+
+    private RequestHedger newHedger(double budgetRatio) {
+        router = new StubRouter();
+        registry = new SimpleMeterRegistry();
+        RequestHedger hedger = new RequestHedger();
+        hedger.router = router;
+        hedger.registry = registry;
+        hedger.enabled = true;
+        hedger.percentile = 0.95;
+        hedger.minDelayMs = 50L;
+        hedger.minSamples = 1;
+        hedger.windowSize = 8;
+        hedger.budgetRatio = budgetRatio;
+        hedger.target = "same";
+        hedger.hedgeModel = Optional.empty();
+        hedger.init();
+
+        // Uma amostra rápida basta para ativar o hedging com a espera mínima de 50 ms
+        router.calls.add(Uni.createFrom().item(response("warmup")));
+        hedger.createMessage(CallKind.RESPONSE, new ClaudeDTO.MessageRequest()).await().atMost(TIMEOUT);
+        return hedger;
+    }
+
+    @Test
+    void hedgeWinsWhenPrimaryIsSlow() {
+        router.calls.add(Uni.createFrom().nothing());
+        router.calls.add(Uni.createFrom().item(response("hedge")));
+
+        ClaudeDTO.MessageResponse result = hedger.createMessage(CallKind.RESPONSE, new ClaudeDTO.MessageRequest())
+                .await().atMost(TIMEOUT);
+
+        assertEquals("hedge", result.id);
+        assertEquals(1.0, registry.counter("claude.hedge.wins", "kind", "response", "winner", "hedge").count());
+    }
+
+    @Test
+    void primaryFailureIsReportedWhenBudgetIsExhausted() {
+        hedger = newHedger(0.0);
+        RuntimeException error = new RuntimeException("primary");
+        router.calls.add(delayedFailure(error, 150));
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> hedger.createMessage(CallKind.RESPONSE, new ClaudeDTO.MessageRequest()).await().atMost(TIMEOUT));
+
+        assertSame(error, thrown);
+        assertEquals(1.0, registry.counter("claude.hedge.skipped", "kind", "response").count());
+    }
+
+    @Test
+    void hedgeAnswersAfterPrimaryFails() {
+        router.calls.add(delayedFailure(new RuntimeException("primary"), 100));
+        router.calls.add(Uni.createFrom().item(response("hedge")).onItem().delayIt().by(Duration.ofMillis(200)));
+
+        ClaudeDTO.MessageResponse result = hedger.createMessage(CallKind.RESPONSE, new ClaudeDTO.MessageRequest())
+                .await().atMost(TIMEOUT);
+
+        assertEquals("hedge", result.id);
+    }
+
+    @Test
+    void primaryErrorWinsWhenBothFail() {
+        RuntimeException primaryError = new RuntimeException("primary");
+        router.calls.add(delayedFailure(primaryError, 100));
+        router.calls.add(delayedFailure(new RuntimeException("hedge"), 200));
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> hedger.createMessage(CallKind.RESPONSE, new ClaudeDTO.MessageRequest()).await().atMost(TIMEOUT));
+
+        assertSame(primaryError, thrown);
+    }
+
+    private static Uni<ClaudeDTO.MessageResponse> delayedFailure(RuntimeException error, long delayMs) {
+        return Uni.createFrom().voidItem()
+                .onItem().delayIt().by(Duration.ofMillis(delayMs))
+                .onItem().transformToUni(ignored -> Uni.createFrom().failure(error));
+    }
+
+    private static ClaudeDTO.MessageResponse response(String id) {
+        ClaudeDTO.MessageResponse response = new ClaudeDTO.MessageResponse();
+        response.id = id;
+        return response;
+    }
+
+    /**
+     * Devolve as respostas na ordem em que as chamadas chegam
+     */
+    static class StubRouter extends LlmRouter {
+        final Deque<Uni<ClaudeDTO.MessageResponse>> calls = new ArrayDeque<>();
+
+        @Override
+        public synchronized Uni<ClaudeDTO.MessageResponse> createMessageAsync(CallKind kind,
+                                                                         ClaudeDTO.MessageRequest request) {
+            return calls.poll();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.acme.service;
+
+import org.acme.entity.ConversationTurn;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConversationSummaryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Test
+    void turnsAfterSummaryStayRawUntilNextRefresh() {
+        // K=5, janela=5: no turno 15 o resumo cobre 1-5 e a janela carregada tem 6-14
+        List<ConversationTurn> history = turns(6, 14);
+        ConversationSummaryService.Summary summary =
+                new ConversationSummaryService.Summary("resumo 1-5", at(5));
+
+        List<ConversationTurn> uncovered = summary.uncovered(history);
+
+        assertEquals(9, uncovered.size());
+        assertEquals("6", uncovered.get(0).userMessage);
+        assertEquals("14", uncovered.get(8).userMessage);
+    }
+
+    @Test
+    void turnsAlreadySummarizedAreDropped() {
+        List<ConversationTurn> history = turns(1, 10);
+        ConversationSummaryService.Summary summary =
+                new ConversationSummaryService.Summary("resumo 1-5", at(5));
+
+        List<ConversationTurn> uncovered = summary.uncovered(history);
+
+        assertEquals(5, uncovered.size());
+        assertEquals("6", uncovered.get(0).userMessage);
+    }
+
+    private static List<ConversationTurn> turns(int from, int to) {
+        List<ConversationTurn> turns = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            turns.add(new ConversationTurn(String.valueOf(i), "resposta " + i, at(i)));
+        }
+        return turns;
+    }
+
+    private static LocalDateTime at(int turn) {
+        return START.plusMinutes(turn);
+    }
+}
@@ -0,0 +1,33 @@
+package org.acme.service;
+
+import org.acme.entity.Message;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EnrichmentServiceTest {
+
+    @Test
+    void messageWaitingInQueueIsPending() {
+        assertEquals("pending", EnrichmentService.status(new Message()));
+    }
+
+    @Test
+    void enrichedMessageIsDone() {
+        Message message = new Message();
+        message.sentiment = "positivo";
+        message.enrichedAt = LocalDateTime.now();
+
+        assertEquals("done", EnrichmentService.status(message));
+    }
+
+    @Test
+    void shedMessageIsUnavailable() {
+        Message message = new Message();
+        message.enrichedAt = LocalDateTime.now();
+
+        assertEquals("unavailable", EnrichmentService.status(message));
+    }
+}
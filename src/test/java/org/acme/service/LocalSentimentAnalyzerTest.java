@@ -0,0 +1,72 @@
+package org.acme.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalSentimentAnalyzerTest {
+
+    private final LocalSentimentAnalyzer analyzer = new LocalSentimentAnalyzer();
+
+    @Test
+    void textWithoutEmotionalWordsIsNeutral() {
+        LocalSentimentAnalyzer.Result result = analyzer.analyze("Qual o horário da sessão de amanhã?");
+
+        assertEquals("neutro", result.label);
+        assertEquals(0, result.score);
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        assertEquals("negativo", analyzer.analyze("Estou em PÂNICO").label);
+        assertEquals("positivo", analyzer.analyze("Foi ótimo!").label);
+    }
+
+    @Test
+    void negationFlipsPolarityWithinWindow() {
+        assertEquals("negativo", analyzer.analyze("Não estou bem").label);
+        assertEquals("positivo", analyzer.analyze("Não fiquei triste").label);
+    }
+
+    @Test
+    void negationDoesNotReachBeyondWindow() {
+        assertEquals("positivo", analyzer.analyze("Não sei se hoje de manhã estou bem").label);
+    }
+
+    @Test
+    void intensifierAmplifiesNextWord() {
+        double plain = analyzer.analyze("cansado").score;
+        double intensified = analyzer.analyze("muito cansado").score;
+        double softened = analyzer.analyze("meio cansado").score;
+
+        assertEquals(plain * 1.5, intensified, 1e-9);
+        assertEquals(plain * 0.6, softened, 1e-9);
+    }
+
+    @Test
+    void intensifierDoesNotCarryOverUnknownTokens() {
+        assertEquals(analyzer.analyze("bom").score, analyzer.analyze("muito, hoje, bom").score, 1e-9);
+    }
+
+    @Test
+    void contrastFavoursWhatComesAfter() {
+        LocalSentimentAnalyzer.Result result = analyzer.analyze("Estava ansioso, mas agora estou tranquilo");
+
+        assertEquals("positivo", result.label);
+        assertEquals(0.5, result.score, 1e-9);
+    }
+
+    @Test
+    void contrastClosesPendingNegation() {
+        assertEquals("positivo", analyzer.analyze("Não sei, mas estou bem").label);
+    }
+
+    @Test
+    void opposingSignalsLowerConfidence() {
+        double mixed = analyzer.analyze("feliz e triste").confidence;
+        double clear = analyzer.analyze("feliz e alegre").confidence;
+
+        assertTrue(mixed < clear, "sinais opostos: " + mixed + " vs " + clear);
+    }
+}
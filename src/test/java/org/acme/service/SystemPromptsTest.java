@@ -0,0 +1,80 @@
+package org.acme.service;
+
+import org.acme.dto.ClaudeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class SystemPromptsTest {
+
+    private static final String SONNET = "claude-sonnet-4-20250514";
+    private static final String HAIKU = "claude-3-5-haiku-20241022";
+
+    private SystemPrompts systemPrompts;
+
+    @BeforeEach
+    void setUp() {
+        systemPrompts = new SystemPrompts();
+        systemPrompts.promptCacheEnabled = true;
+        systemPrompts.init();
+    }
+
+    @Test
+    void systemPromptsAreTooShortToBeCached() {
+        for (String therapyType : SystemPrompts.THERAPY_TYPES) {
+            assertInstanceOf(String.class, systemPrompts.response(therapyType, SONNET), therapyType);
+            assertInstanceOf(String.class, systemPrompts.combined(therapyType, SONNET), therapyType);
+        }
+    }
+
+    @Test
+    void historyBreakpointNeedsMinimumPrefix() {
+        ClaudeDTO.MessageRequest request = request(SONNET, 2);
+
+        systemPrompts.markCacheBreakpoint(request);
+
+        assertInstanceOf(String.class, lastHistory(request).content);
+    }
+
+    @Test
+    void historyBreakpointIsMarkedAboveMinimum() {
+        ClaudeDTO.MessageRequest request = request(SONNET, 1200);
+
+        systemPrompts.markCacheBreakpoint(request);
+
+        List<?> blocks = assertInstanceOf(List.class, lastHistory(request).content);
+        assertNotNull(((ClaudeDTO.ContentBlock) blocks.get(0)).cacheControl);
+    }
+
+    @Test
+    void haikuNeedsLongerPrefix() {
+        ClaudeDTO.MessageRequest request = request(HAIKU, 1200);
+
+        systemPrompts.markCacheBreakpoint(request);
+
+        assertInstanceOf(String.class, lastHistory(request).content);
+    }
+
+    /**
+     * Requisição com um turno de histórico de {@code historyWords} palavras curtas e a mensagem atual
+     */
+    private ClaudeDTO.MessageRequest request(String model, int historyWords) {
+        ClaudeDTO.MessageRequest request = new ClaudeDTO.MessageRequest();
+        request.model = model;
+        request.system = systemPrompts.response("geral", model);
+        request.messages = new ArrayList<>();
+        request.messages.add(new ClaudeDTO.Message("user", "olá"));
+        request.messages.add(new ClaudeDTO.Message("assistant", "abcd ".repeat(historyWords)));
+        request.messages.add(new ClaudeDTO.Message("user", "e agora?"));
+        return request;
+    }
+
+    private static ClaudeDTO.Message lastHistory(ClaudeDTO.MessageRequest request) {
+        return request.messages.get(request.messages.size() - 2);
+    }
+}
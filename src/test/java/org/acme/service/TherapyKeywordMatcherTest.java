@@ -0,0 +1,61 @@
+package org.acme.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TherapyKeywordMatcherTest {
+
+    private TherapyKeywordMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, String[]> keywords = new LinkedHashMap<>();
+        keywords.put("reiki", new String[]{"energia", "chakra", "imposição de mãos"});
+        keywords.put("meditacao", new String[]{"energia", "respiração", "ansiedade"});
+        keywords.put("ayurveda", new String[]{"dosha", "vata"});
+        matcher = new TherapyKeywordMatcher(keywords, 2.0);
+    }
+
+    @Test
+    void returnsDefaultWhenNothingMatches() {
+        assertEquals("geral", matcher.bestMatch("Olá, tudo bem?", "geral"));
+        assertEquals("geral", matcher.bestMatch("", "geral"));
+        assertEquals("geral", matcher.bestMatch(null, "geral"));
+    }
+
+    @Test
+    void ignoresAccentsCaseAndPunctuation() {
+        assertEquals("meditacao", matcher.bestMatch("Exercícios de RESPIRAÇÃO!", "geral"));
+        assertEquals("reiki", matcher.bestMatch("O que é imposição   de mãos?", "geral"));
+    }
+
+    @Test
+    void matchesWholeWordsAndPlural() {
+        assertEquals("reiki", matcher.bestMatch("Como alinhar os chakras", "geral"));
+        assertEquals("geral", matcher.bestMatch("Sou vataxx e doshaki", "geral"));
+        assertEquals("geral", matcher.bestMatch("Tenho avata", "geral"));
+    }
+
+    @Test
+    void sharedKeywordSplitsWeightAndTieGoesToFirstDeclared() {
+        assertArrayEquals(new double[]{0.5, 0.5, 0.0}, matcher.score("energia"), 1e-9);
+        assertEquals("reiki", matcher.bestMatch("energia", "geral"));
+    }
+
+    @Test
+    void therapyNameOutweighsSingleKeyword() {
+        assertEquals("ayurveda", matcher.bestMatch("ansiedade e ayurveda", "geral"));
+    }
+
+    @Test
+    void countsAdjacentKeywords() {
+        assertArrayEquals(new double[]{0.0, 0.0, 2.0}, matcher.score("dosha vata"), 1e-9);
+        assertEquals("meditacao", matcher.bestMatch("chakra, ansiedade, respiração", "geral"));
+    }
+}